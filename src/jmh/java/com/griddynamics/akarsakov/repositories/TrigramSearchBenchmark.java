@@ -0,0 +1,110 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.config.MongoIndexesInitializer;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfig;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.bson.UuidRepresentation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrigramSearchBenchmark {
+    private static final String[] WORDS = {"orbit", "lunar", "relay", "survey", "cargo", "crew", "polar", "deep",
+            "station", "probe", "weather", "beacon", "gateway", "resupply", "transfer", "science"};
+
+    @Param({"100000"})
+    private int rocketsCount;
+
+    @Param({"Gateway Relay", "Polar Weather Survey"})
+    private String missionNamePart;
+
+    private MongodExecutable mongodExecutable;
+    private MongoClient mongoClient;
+    private RocketRepositoryCustomImpl repository;
+    private SearchPlan regexPlan;
+    private SearchPlan trigramPlan;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int port = Network.getFreeServerPort();
+        mongodExecutable = MongodStarter.getDefaultInstance().prepare(MongodConfig.builder()
+                .version(Version.Main.V4_4)
+                .net(new Net(port, Network.localhostIsIPv6()))
+                .build());
+        mongodExecutable.start();
+
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://localhost:" + port))
+                .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                .build());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "rockets-benchmark");
+
+        Random random = new Random(42);
+        List<Rocket> rockets = new ArrayList<>(rocketsCount);
+        for (int i = 0; i < rocketsCount; i++) {
+            Rocket rocket = new Rocket(UUID.randomUUID(), "Falcon " + random.nextInt(10));
+            rocket.setMissionName(word(random) + " " + word(random) + " " + word(random) + " " + i);
+            Satellite satellite = new Satellite(UUID.randomUUID());
+            satellite.setName(word(random) + "-" + random.nextInt(1000));
+            satellite.setAssignment(word(random));
+            rocket.addSatellite(satellite);
+            rockets.add(rocket);
+        }
+        mongoTemplate.insertAll(rockets);
+
+        // A plain template publishes no mapping events, so the grams are filled the same way as for legacy data
+        new RocketSearchGramsListener(mongoTemplate).backfillSearchGrams();
+        new MongoIndexesInitializer(mongoTemplate).ensureIndexes();
+
+        repository = new RocketRepositoryCustomImpl(mongoTemplate);
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("missionName", SearchCondition.Condition.LIKE, missionNamePart));
+        regexPlan = SearchPlan.compile(conditions, new SearchPlanOptions(false));
+        trigramPlan = SearchPlan.compile(conditions, new SearchPlanOptions(true));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoClient.close();
+        mongodExecutable.stop();
+    }
+
+    @Benchmark
+    public Rocket regexScan() {
+        return repository.findFirstByFilter(regexPlan.filter()).orElse(null);
+    }
+
+    @Benchmark
+    public Rocket trigramIndex() {
+        return repository.findFirstByFilter(trigramPlan.filter()).orElse(null);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
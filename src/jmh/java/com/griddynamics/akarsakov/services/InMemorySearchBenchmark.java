@@ -0,0 +1,104 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.index.RocketIndex;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchMetrics;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+// Measures the work the worker does in the JVM; the repository is mocked and no query reaches Mongo. The planning
+// benchmark only compiles the conditions into a filter and hands it to the mock, the residual searches scan every
+// rocket in memory until the last one and the index searches answer from a loaded RocketIndex.
+// Queries against a real Mongo are measured by TrigramSearchBenchmark on an embedded server.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemorySearchBenchmark {
+    private static final String[] TYPES = {"light", "heavy", "super-heavy"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int rocketCount;
+
+    private RocketComposerServiceWorker worker;
+    private RocketComposerServiceWorker indexedWorker;
+
+    private final List<SearchCondition> fullyPushedDown = List.of(
+            new SearchCondition("type", EQUALS, "heavy"),
+            new SearchCondition("delta-V", GREATER_THAN, 1700));
+    private final List<SearchCondition> residualParameter = List.of(
+            new SearchCondition("stage.count", EQUALS, 2));
+    private final List<SearchCondition> residualWithPushedDown = List.of(
+            new SearchCondition("type", NOT_EQUALS, "light"),
+            new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1000),
+            new SearchCondition("stage.count", LIKE, "2"));
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Rocket> rockets = new ArrayList<>(rocketCount);
+        for (int i = 0; i < rocketCount; i++) {
+            Rocket rocket = new Rocket(UUID.randomUUID(), TYPES[i % TYPES.length]);
+            rocket.setMissionName("Mission " + i);
+            rocket.addParameter("delta-V", Integer.toString(500 + i % 4000));
+            rocket.addParameter("Fuel", (i % 100) + "%");
+            Satellite satellite = new Satellite(UUID.randomUUID());
+            satellite.setName("Satellite " + i);
+            rocket.addSatellite(satellite);
+            rockets.add(rocket);
+        }
+        rockets.get(rocketCount - 1).addParameter("stage.count", "2");
+
+        RocketRepository repository = Mockito.mock(RocketRepository.class);
+        when(repository.findFirstByFilter(any())).thenReturn(Optional.of(rockets.get(0)));
+        when(repository.streamByFilter(any(), anyInt())).thenAnswer(invocation -> rockets.stream());
+        worker = new RocketComposerServiceWorker(repository);
+
+        RocketIndex index = new RocketIndex();
+        index.load(rockets.iterator());
+        indexedWorker = new RocketComposerServiceWorker(repository, SearchPlanOptions.DEFAULT,
+                new SearchMetrics(new SimpleMeterRegistry()), RocketCache.disabled(), index);
+    }
+
+    @Benchmark
+    public Rocket planCompilation_fullyPushedDown() {
+        return worker.searchByConditions(fullyPushedDown);
+    }
+
+    @Benchmark
+    public Rocket residualScan_parameter() {
+        return worker.searchByConditions(residualParameter);
+    }
+
+    @Benchmark
+    public Rocket residualScan_withPushedDown() {
+        return worker.searchByConditions(residualWithPushedDown);
+    }
+
+    @Benchmark
+    public Rocket index_residualParameter() {
+        return indexedWorker.searchByConditions(residualParameter);
+    }
+
+    @Benchmark
+    public Rocket index_residualWithPushedDown() {
+        return indexedWorker.searchByConditions(residualWithPushedDown);
+    }
+}
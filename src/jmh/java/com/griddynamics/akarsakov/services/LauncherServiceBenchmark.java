@@ -0,0 +1,52 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.services.simulation.LaunchSimulationReport;
+import com.griddynamics.akarsakov.services.simulation.LaunchSimulationServiceImpl;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LauncherServiceBenchmark {
+    private static final int ROCKETS = 1000;
+    private static final int ITERATIONS = 1000;
+
+    private final ChanceCalculator calculator = new ChanceCalculator();
+    private final LauncherServiceImpl launcherService = new LauncherServiceImpl(calculator);
+    private final LaunchSimulationServiceImpl simulationService =
+            new LaunchSimulationServiceImpl(calculator, LaunchOptions.DEFAULT);
+
+    private final Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+    private final Spaceport spaceport = new Spaceport(UUID.randomUUID(), 63.3, 45.9);
+    private final List<LaunchRequest> requests = new ArrayList<>(ROCKETS);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < ROCKETS; i++) {
+            requests.add(new LaunchRequest(new Rocket(UUID.randomUUID(), i % 2 == 0 ? "heavy" : "light"),
+                    new Spaceport(UUID.randomUUID(), (double) (i % 10), 45.9)));
+        }
+    }
+
+    @Benchmark
+    public boolean launch() {
+        return launcherService.launch(rocket, spaceport);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROCKETS * ITERATIONS)
+    public LaunchSimulationReport simulate() {
+        return simulationService.simulate(requests, ITERATIONS);
+    }
+}
@@ -0,0 +1,80 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.config.ServiceExecutorMode;
+import com.griddynamics.akarsakov.config.ServiceExecutors;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Run on a JDK with virtual threads (21+) to compare both modes, older runtimes fall back to the platform pool
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceExecutorLoadBenchmark {
+    private static final int CONCURRENT_CALLERS = 10_000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ServiceExecutorMode mode;
+
+    @Param({"64"})
+    private int poolSize;
+
+    @Param({"5"})
+    private long repositoryLatencyMillis;
+
+    private ExecutorService executor;
+    private RocketComposerServiceImpl service;
+    private final List<SearchCondition> conditions = List.of(
+            new SearchCondition("type", SearchCondition.Condition.EQUALS, "heavy"));
+    private final Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = ServiceExecutors.create(mode, poolSize);
+        service = new RocketComposerServiceImpl(blockingRepository(), SearchPlanOptions.DEFAULT, executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_CALLERS)
+    public void getFirstRocketByConditionsAsync() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[CONCURRENT_CALLERS];
+        for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+            calls[i] = service.getFirstRocketByConditionsAsync(conditions);
+        }
+        CompletableFuture.allOf(calls).join();
+    }
+
+    // Stands in for a Mongo round trip: the calling thread is blocked for a fixed time
+    private RocketRepository blockingRepository() {
+        return (RocketRepository) Proxy.newProxyInstance(RocketRepository.class.getClassLoader(),
+                new Class<?>[]{RocketRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findFirstByFilter")) {
+                        Thread.sleep(repositoryLatencyMillis);
+                        return Optional.of(rocket);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(this, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-operator cost of the in-memory matchers that replaced the old per-rocket checkCondition
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchPlanMatchBenchmark {
+    private static final int ROCKETS = 1024;
+
+    @Param({"EQUALS", "NOT_EQUALS", "LIKE", "LESSER_THAN", "GREATER_THAN",
+            "LESSER_OR_EQUALS_THAN", "GREATER_OR_EQUALS_THAN"})
+    private SearchCondition.Condition operator;
+
+    @Param({"delta-V", "type", "missionName", "satellite.name"})
+    private String attribute;
+
+    private final Rocket[] rockets = new Rocket[ROCKETS];
+    private SearchPlan plan;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < ROCKETS; i++) {
+            Rocket rocket = new Rocket(UUID.randomUUID(), i % 2 == 0 ? "heavy" : "light");
+            rocket.setMissionName("Mission " + i);
+            rocket.addParameter("delta-V", Integer.toString(500 + i * 3));
+            rockets[i] = rocket;
+        }
+
+        Object value = switch (operator) {
+            case LIKE -> "17";
+            case EQUALS, NOT_EQUALS -> attribute.equals("delta-V") ? "1700" : "heavy";
+            default -> 1700;
+        };
+        plan = SearchPlan.compile(List.of(new SearchCondition(attribute, operator, value)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROCKETS)
+    public void matches(Blackhole blackhole) {
+        for (Rocket rocket : rockets) {
+            blackhole.consume(plan.matches(rocket));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ChanceCalculatorBenchmark {
+    private static final int BATCH_SIZE = 1024;
+
+    private final ChanceCalculator calculator = new ChanceCalculator();
+
+    @State(Scope.Thread)
+    public static class Outcomes {
+        final int[] values = new int[BATCH_SIZE];
+    }
+
+    @Benchmark
+    public int randomPerRoll() {
+        return new Random().nextInt(100);
+    }
+
+    @Benchmark
+    public int threadLocalRoll() {
+        return calculator.rollForLaunchSuccess();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] bulkRolls(Outcomes outcomes) {
+        calculator.rollForLaunchSuccess(outcomes.values);
+        return outcomes.values;
+    }
+}
@@ -0,0 +1,44 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberUtilsBenchmark {
+
+    @Param({"1700", "1700.0001", "1.7E3"})
+    private String conditionValue;
+
+    private final String[] parameterValues = {"900", "2000", "1700.5", "4500", "12.75", "100000", "-3", "1699.999"};
+
+    private NumericOperand operand;
+
+    @Setup
+    public void setup() {
+        operand = NumericOperand.parse(conditionValue);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void perRocketBigDecimal(Blackhole blackhole) {
+        for (String parameterValue : parameterValues) {
+            blackhole.consume(NumberUtils.isNumeric(conditionValue)
+                    && NumberUtils.compareParamAndConditionValues(parameterValue, conditionValue) > 0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void preParsedOperand(Blackhole blackhole) {
+        for (String parameterValue : parameterValues) {
+            blackhole.consume(NumberUtils.isDecimal(parameterValue) && operand.compareTo(parameterValue) > 0);
+        }
+    }
+}
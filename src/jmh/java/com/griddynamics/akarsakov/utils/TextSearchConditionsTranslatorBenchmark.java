@@ -0,0 +1,39 @@
+package com.griddynamics.akarsakov.utils;
+
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSearchConditionsTranslatorBenchmark {
+
+    @Param({"EQUALS", "NOT_EQUALS", "LIKE"})
+    private SearchCondition.Condition operator;
+
+    private SearchCondition singleValue;
+    private SearchCondition multipleValues;
+
+    @Setup
+    public void setup() {
+        singleValue = new SearchCondition("missionName", operator, "far space (exploration)*");
+        multipleValues = new SearchCondition("missionName", operator, List.of("GPS renew", "Juno", "Voyager 2"));
+    }
+
+    @Benchmark
+    public Document buildSearchFragment_singleValue() {
+        return TextSearchConditionsTranslator.buildSearchFragment(singleValue);
+    }
+
+    @Benchmark
+    public Document buildSearchFragment_multipleValues() {
+        return TextSearchConditionsTranslator.buildSearchFragment(multipleValues);
+    }
+}
@@ -0,0 +1,15 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.services.LaunchOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LaunchConfiguration {
+
+    @Bean
+    public LaunchOptions launchOptions(@Value("${rockets.launch.failure-chance:10}") int failureChance) {
+        return new LaunchOptions(failureChance);
+    }
+}
@@ -0,0 +1,70 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.RocketSearchGramsListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.WildcardIndex;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "rockets.mongo.ensure-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexesInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexesInitializer.class);
+
+    public static final Collation CASE_INSENSITIVE_COLLATION =
+            Collation.of(Locale.ENGLISH).strength(Collation.ComparisonLevel.secondary());
+
+    private static final Map<Class<?>, List<IndexDefinition>> INDEXES = Map.of(
+            Rocket.class, List.of(
+                    new Index().on("type", Sort.Direction.ASC).named("type"),
+                    new Index().on("missionName", Sort.Direction.ASC).named("missionName"),
+                    new Index().on("spaceport.$id", Sort.Direction.ASC).named("spaceport"),
+                    new WildcardIndex("parameters").named("parameters"),
+                    new WildcardIndex("typedParameters").named("typedParameters"),
+                    new Index().on("satellites.name", Sort.Direction.ASC).named("satellites.name"),
+                    new Index().on("satellites.assignment", Sort.Direction.ASC).named("satellites.assignment"),
+                    gramsIndex(RocketSearchGramsListener.MISSION_NAME),
+                    gramsIndex(RocketSearchGramsListener.SATELLITE_NAME),
+                    gramsIndex(RocketSearchGramsListener.SATELLITE_ASSIGNMENT)
+            ),
+            Spaceport.class, List.of(
+                    new Index().on("name", Sort.Direction.ASC).named("name_ci").collation(CASE_INSENSITIVE_COLLATION)
+            )
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexesInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private static Index gramsIndex(String field) {
+        String path = RocketSearchGramsListener.FIELD + "." + field;
+        return new Index().on(path, Sort.Direction.ASC).named(path);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        INDEXES.forEach((entityClass, indexes) -> {
+            String collectionName = mongoTemplate.getCollectionName(entityClass);
+            indexes.forEach(index -> {
+                String indexName = mongoTemplate.indexOps(collectionName).ensureIndex(index);
+                LOGGER.debug("Ensured index {} on collection {}", indexName, collectionName);
+            });
+        });
+    }
+}
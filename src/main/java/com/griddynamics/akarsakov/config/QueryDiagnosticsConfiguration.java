@@ -0,0 +1,49 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.repositories.SlowQueryListener;
+import com.mongodb.client.MongoClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(name = "rockets.diagnostics.enabled", havingValue = "true")
+public class QueryDiagnosticsConfiguration {
+
+    // The client is looked up lazily: it is still being built from these settings when the listener is created
+    @Bean
+    public SlowQueryListener slowQueryListener(
+            @Value("${rockets.diagnostics.slow-query-threshold:100ms}") Duration threshold,
+            ObjectProvider<MongoClient> mongoClient,
+            @Qualifier("slowQueryExplainExecutor") Executor executor) {
+        return new SlowQueryListener(threshold, database -> mongoClient.getObject().getDatabase(database),
+                executor, SlowQueryListener::log);
+    }
+
+    // Explains must not compete with the service calls, and a burst of slow queries should not queue up without
+    // bound, so a single thread works through a bounded queue and rejects the rest
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier("slowQueryExplainExecutor")
+    public ExecutorService slowQueryExplainExecutor(
+            @Value("${rockets.diagnostics.explain-queue-size:100}") int queueSize) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                new CustomizableThreadFactory("slow-query-explain-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryListenerCustomizer(SlowQueryListener slowQueryListener) {
+        return builder -> builder.addCommandListener(slowQueryListener);
+    }
+}
@@ -0,0 +1,22 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.services.RocketCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// The cache is invalidated only by writes made in this JVM, so it is off unless a single instance owns the data
+@Configuration
+public class RocketCacheConfiguration {
+
+    @Bean
+    public RocketCache rocketCache(@Value("${rockets.cache.enabled:false}") boolean enabled,
+                                   @Value("${rockets.cache.maximum-size:1000}") long maximumSize,
+                                   @Value("${rockets.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                   MeterRegistry meterRegistry) {
+        return enabled ? RocketCache.create(maximumSize, expireAfterWrite, meterRegistry) : RocketCache.disabled();
+    }
+}
@@ -0,0 +1,15 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.services.index.RocketIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// The index stays empty and unused unless rockets.index.enabled turns on the refresher that loads it
+@Configuration
+public class RocketIndexConfiguration {
+
+    @Bean
+    public RocketIndex rocketIndex() {
+        return new RocketIndex();
+    }
+}
@@ -0,0 +1,38 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.search.SampledSelectivityEstimator;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import com.griddynamics.akarsakov.services.search.SelectivityEstimator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class SearchConfiguration {
+
+    // Sampling is opt-in, it runs a $sample aggregation on the service executor every refresh interval
+    @Bean
+    public SelectivityEstimator selectivityEstimator(
+            @Value("${rockets.search.statistics.enabled:false}") boolean enabled,
+            @Value("${rockets.search.statistics.sample-size:1000}") int sampleSize,
+            @Value("${rockets.search.statistics.refresh-interval:10m}") Duration refreshInterval,
+            RocketRepository rocketRepository,
+            @Qualifier("serviceExecutor") Executor executor) {
+        return enabled ?
+                new SampledSelectivityEstimator(rocketRepository, executor, sampleSize, refreshInterval) :
+                SelectivityEstimator.HEURISTIC;
+    }
+
+    @Bean
+    public SearchPlanOptions searchPlanOptions(
+            @Value("${rockets.search.trigram-index:true}") boolean trigramIndexEnabled,
+            @Value("${rockets.search.typed-parameters.enabled:true}") boolean typedParametersEnabled,
+            SelectivityEstimator selectivityEstimator) {
+        return new SearchPlanOptions(trigramIndexEnabled, typedParametersEnabled, selectivityEstimator);
+    }
+}
@@ -0,0 +1,34 @@
+package com.griddynamics.akarsakov.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class ServiceExecutorConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier("serviceExecutor")
+    public ExecutorService serviceExecutor(@Value("${rockets.executor.mode:platform}") String mode,
+                                           @Value("${rockets.executor.pool-size:64}") int poolSize) {
+        return ServiceExecutors.create(ServiceExecutorMode.of(mode), poolSize);
+    }
+
+    // Boot backs off from its own task executor as soon as any Executor bean exists, so the one @Async and MVC
+    // fall back to is declared the way Boot would, from the spring.task.execution properties
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ObjectProvider<TaskExecutorBuilder> builder) {
+        return builder.getIfAvailable(TaskExecutorBuilder::new).build();
+    }
+}
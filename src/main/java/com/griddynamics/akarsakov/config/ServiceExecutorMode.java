@@ -0,0 +1,13 @@
+package com.griddynamics.akarsakov.config;
+
+import java.util.Locale;
+
+public enum ServiceExecutorMode {
+    PLATFORM,
+    VIRTUAL;
+
+    // Property values are matched case-insensitively, without relying on the conversion service Boot installs
+    public static ServiceExecutorMode of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
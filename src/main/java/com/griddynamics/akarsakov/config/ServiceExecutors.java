@@ -0,0 +1,37 @@
+package com.griddynamics.akarsakov.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class ServiceExecutors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceExecutors.class);
+
+    private static final String THREAD_NAME_PREFIX = "rocket-service-";
+
+    private ServiceExecutors() {}
+
+    public static ExecutorService create(ServiceExecutorMode mode, int poolSize) {
+        if (mode == ServiceExecutorMode.VIRTUAL) {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                return executor;
+            }
+            LOGGER.warn("Virtual threads are not available on Java {}, using a pool of {} platform threads",
+                    Runtime.version().feature(), poolSize);
+        }
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+    }
+
+    // Looked up reflectively since the sources target Java 17, where virtual threads do not exist yet
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.griddynamics.akarsakov.entities;
 
+import com.griddynamics.akarsakov.utils.ParameterValueParser;
 import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -20,19 +23,51 @@ public class Rocket {
     @Field
     private String missionName;
 
-    @DBRef
+    @DBRef(lazy = true)
     private Spaceport spaceport;
 
-    private Map<String, String> parameters = new HashMap<>();
+    private final Map<String, String> parameters = new HashMap<>();
+
+    private final Map<String, Object> typedParameters = new HashMap<>();
 
     private Set<Satellite> satellites = new HashSet<>();
 
-    @PersistenceConstructor
+    @Transient
+    private final Map<String, String> parametersView = Collections.unmodifiableMap(parameters);
+
+    @Transient
+    private final Map<String, Object> typedParametersView = Collections.unmodifiableMap(typedParameters);
+
+    @Transient
+    private Set<Satellite> satellitesView;
+
+    @Transient
+    private final RocketChanges changes = new RocketChanges();
+
     public Rocket(@NonNull UUID id, @NonNull String type) {
         this.id = id;
         this.type = type;
     }
 
+    // Typed values are normalized while the document is read, so reading a rocket never changes it. Documents
+    // stored before typed parameters were kept only have the raw strings, their typed values are parsed from those.
+    @PersistenceConstructor
+    private Rocket(UUID id, String type, Map<String, String> parameters, Map<String, Object> typedParameters) {
+        this(id, type);
+        if (parameters != null) {
+            this.parameters.putAll(parameters);
+        }
+        if (typedParameters != null) {
+            typedParameters.forEach((key, value) ->
+                    this.typedParameters.put(key, ParameterValueParser.normalize(value)));
+        }
+        this.parameters.forEach((key, value) -> {
+            if (!this.typedParameters.containsKey(key)) {
+                putTypedParameter(key, value);
+            }
+        });
+    }
+
 
     public UUID getId() {
         return id;
@@ -48,6 +83,7 @@ public class Rocket {
 
     public void setMissionName(String missionName) {
         this.missionName = missionName;
+        changes.missionNameChanged();
     }
 
     public Spaceport getSpaceport() {
@@ -56,27 +92,58 @@ public class Rocket {
 
     public void setSpaceport(Spaceport spaceport) {
         this.spaceport = spaceport;
+        changes.spaceportChanged();
+    }
+
+    // Replaces the stored reference with the loaded spaceport, which is not a change of the rocket itself
+    public void resolveSpaceport(@NonNull Spaceport spaceport) {
+        this.spaceport = spaceport;
+    }
+
+    // Reads the id from the stored reference, so a spaceport that has not been loaded yet stays unloaded
+    public UUID getSpaceportId() {
+        if (spaceport instanceof LazyLoadingProxy proxy
+                && proxy.toDBRef() != null
+                && proxy.toDBRef().getId() instanceof UUID spaceportId) {
+            return spaceportId;
+        }
+        return spaceport != null ? spaceport.getId() : null;
     }
 
     public Map<String, String> getParameters() {
-        return Collections.unmodifiableMap(parameters);
+        return parametersView;
+    }
+
+    public Map<String, Object> getTypedParameters() {
+        return typedParametersView;
+    }
+
+    public Object getTypedParameter(String paramName) {
+        return getTypedParameters().get(paramName);
     }
 
     public void addParameter(@NonNull String paramName, @NonNull String paramValue) {
         parameters.put(paramName, paramValue);
+        putTypedParameter(paramName, paramValue);
+        changes.parameterChanged(paramName);
     }
 
     public void setParameters(Map<String, String> parameters) {
         if (parameters == null || parameters.isEmpty()) {
             this.parameters.clear();
+            this.typedParameters.clear();
+            changes.parametersCleared();
         } else {
             parameters.forEach((key, value) -> {
                 if (key != null) {
                     if (value != null) {
                         this.parameters.put(key, value);
+                        putTypedParameter(key, value);
                     } else {
                         this.parameters.remove(key);
+                        this.typedParameters.remove(key);
                     }
+                    changes.parameterChanged(key);
                 }
             });
         }
@@ -84,22 +151,41 @@ public class Rocket {
 
     public void removeParameter(@NonNull String paramName) {
         parameters.remove(paramName);
+        typedParameters.remove(paramName);
+        changes.parameterChanged(paramName);
+    }
+
+    private void putTypedParameter(String paramName, String paramValue) {
+        Object typedValue = ParameterValueParser.parse(paramValue);
+        if (typedValue != null) {
+            typedParameters.put(paramName, typedValue);
+        } else {
+            typedParameters.remove(paramName);
+        }
     }
 
     public Set<Satellite> getSatellites() {
-        return Collections.unmodifiableSet(satellites);
+        if (satellitesView == null) {
+            satellitesView = Collections.unmodifiableSet(satellites);
+        }
+        return satellitesView;
     }
 
     public void addSatellite(@NonNull Satellite satellite) {
-        satellites.add(satellite);
+        if (satellites.add(satellite)) {
+            changes.satelliteAdded(satellite);
+        }
     }
 
     public void removeSatellite(@NonNull Satellite satellite) {
-        satellites.remove(satellite);
+        if (satellites.remove(satellite)) {
+            changes.satelliteRemoved(satellite);
+        }
     }
 
     public void setSatellites(Set<Satellite> satellites) {
         this.satellites.clear();
+        changes.satellitesReplaced();
         if (satellites != null && !satellites.isEmpty()) {
             satellites.stream()
                     .filter(Objects::nonNull)
@@ -107,6 +193,27 @@ public class Rocket {
         }
     }
 
+    // Modifications made since the rocket was loaded or its changes were last saved
+    public RocketChanges getChanges() {
+        return changes;
+    }
+
+    public void clearChanges() {
+        changes.clear();
+    }
+
+    // Copy that shares no mutable state with this rocket and starts without changes. The spaceport is a document
+    // of its own and is shared.
+    public Rocket copy() {
+        Rocket copy = new Rocket(id, type);
+        copy.missionName = missionName;
+        copy.spaceport = spaceport;
+        copy.parameters.putAll(parameters);
+        copy.typedParameters.putAll(typedParameters);
+        satellites.forEach(satellite -> copy.satellites.add(satellite.copy()));
+        return copy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null) {
@@ -0,0 +1,104 @@
+package com.griddynamics.akarsakov.entities;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class RocketChanges {
+    private final Set<String> changedParameterNames = new LinkedHashSet<>();
+    private final Set<Satellite> addedSatellites = new LinkedHashSet<>();
+    private final Set<Satellite> removedSatellites = new LinkedHashSet<>();
+    private boolean parametersCleared;
+    private boolean satellitesReplaced;
+    private boolean missionNameChanged;
+    private boolean spaceportChanged;
+
+    RocketChanges() {}
+
+    public Set<String> getChangedParameterNames() {
+        return Collections.unmodifiableSet(changedParameterNames);
+    }
+
+    public Set<Satellite> getAddedSatellites() {
+        return Collections.unmodifiableSet(addedSatellites);
+    }
+
+    public Set<Satellite> getRemovedSatellites() {
+        return Collections.unmodifiableSet(removedSatellites);
+    }
+
+    public boolean isParametersCleared() {
+        return parametersCleared;
+    }
+
+    public boolean isSatellitesReplaced() {
+        return satellitesReplaced;
+    }
+
+    public boolean isSatellitesChanged() {
+        return satellitesReplaced || !addedSatellites.isEmpty() || !removedSatellites.isEmpty();
+    }
+
+    public boolean isMissionNameChanged() {
+        return missionNameChanged;
+    }
+
+    public boolean isSpaceportChanged() {
+        return spaceportChanged;
+    }
+
+    public boolean isEmpty() {
+        return changedParameterNames.isEmpty()
+                && !parametersCleared
+                && !isSatellitesChanged()
+                && !missionNameChanged
+                && !spaceportChanged;
+    }
+
+    void parameterChanged(String paramName) {
+        if (!parametersCleared) {
+            changedParameterNames.add(paramName);
+        }
+    }
+
+    void parametersCleared() {
+        parametersCleared = true;
+        changedParameterNames.clear();
+    }
+
+    void satelliteAdded(Satellite satellite) {
+        if (!satellitesReplaced && !removedSatellites.remove(satellite)) {
+            addedSatellites.add(satellite);
+        }
+    }
+
+    void satelliteRemoved(Satellite satellite) {
+        if (!satellitesReplaced && !addedSatellites.remove(satellite)) {
+            removedSatellites.add(satellite);
+        }
+    }
+
+    void satellitesReplaced() {
+        satellitesReplaced = true;
+        addedSatellites.clear();
+        removedSatellites.clear();
+    }
+
+    void missionNameChanged() {
+        missionNameChanged = true;
+    }
+
+    void spaceportChanged() {
+        spaceportChanged = true;
+    }
+
+    void clear() {
+        changedParameterNames.clear();
+        addedSatellites.clear();
+        removedSatellites.clear();
+        parametersCleared = false;
+        satellitesReplaced = false;
+        missionNameChanged = false;
+        spaceportChanged = false;
+    }
+}
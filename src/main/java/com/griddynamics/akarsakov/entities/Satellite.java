@@ -42,6 +42,13 @@ public class Satellite {
         this.assignment = assignment;
     }
 
+    public Satellite copy() {
+        Satellite copy = new Satellite(id);
+        copy.name = name;
+        copy.assignment = assignment;
+        return copy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null) {
@@ -0,0 +1,16 @@
+package com.griddynamics.akarsakov.repositories;
+
+import java.util.Map;
+
+public record BulkUpdateReport(int matchedCount, int modifiedCount, Map<Integer, String> errors) {
+
+    public static final BulkUpdateReport EMPTY = new BulkUpdateReport(0, 0, Map.of());
+
+    public boolean isFailed(int index) {
+        return errors.containsKey(index);
+    }
+
+    public String errorOf(int index) {
+        return errors.get(index);
+    }
+}
@@ -0,0 +1,23 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import org.bson.BsonDocument;
+import org.bson.Document;
+
+import java.util.List;
+
+// Examined documents and the plan are only known for queries that were explained, otherwise they are -1 and null.
+// The command is kept as the raw copy taken from the driver and is only decoded when it is read.
+public record QueryRecord(String commandName,
+                          String collection,
+                          BsonDocument command,
+                          long durationNanos,
+                          long returned,
+                          long examined,
+                          Document plan,
+                          List<SearchCondition> conditions) {
+
+    public boolean isExplained() {
+        return plan != null;
+    }
+}
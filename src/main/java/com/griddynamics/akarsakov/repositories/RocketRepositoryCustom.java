@@ -0,0 +1,36 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface RocketRepositoryCustom {
+
+    Optional<Rocket> findFirstByFilter(Document filter);
+
+    List<Optional<Rocket>> findFirstByFilters(List<Document> filters);
+
+    List<Rocket> findByFilter(Document filter);
+
+    List<Rocket> sample(int size);
+
+    Stream<Rocket> streamByFilter(Document filter, int batchSize);
+
+    Stream<Rocket> streamByFilterWithSpaceports(Document filter, int batchSize);
+
+    void fetchSpaceports(Collection<Rocket> rockets);
+
+    BulkUpdateReport bulkUpdate(List<Pair<UUID, Update>> updates);
+
+    boolean saveChanges(Rocket rocket);
+
+    BulkUpdateReport saveAllChanges(List<Rocket> rockets);
+
+}
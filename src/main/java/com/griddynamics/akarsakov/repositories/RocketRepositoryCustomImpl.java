@@ -0,0 +1,261 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.util.Pair;
+import org.springframework.data.util.StreamUtils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class RocketRepositoryCustomImpl implements RocketRepositoryCustom {
+    private static final int FILTERS_PER_AGGREGATION = 64;
+    private static final String FACET_PREFIX = "filter";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RocketRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, event -> {});
+    }
+
+    @Autowired
+    public RocketRepositoryCustomImpl(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Optional<Rocket> findFirstByFilter(Document filter) {
+        return Optional.ofNullable(mongoTemplate.findOne(new BasicQuery(filter).limit(1), Rocket.class));
+    }
+
+    @Override
+    public List<Optional<Rocket>> findFirstByFilters(List<Document> filters) {
+        // An empty filter would make the shared $match a full scan feeding $facet, which uses no index and is bound
+        // by the document size limit, so those filters are answered by a plain query instead
+        List<Document> nonEmpty = filters.stream().filter(filter -> !filter.isEmpty()).toList();
+        List<Optional<Rocket>> found = new ArrayList<>(nonEmpty.size());
+        for (int from = 0; from < nonEmpty.size(); from += FILTERS_PER_AGGREGATION) {
+            List<Document> chunk = nonEmpty.subList(from, Math.min(from + FILTERS_PER_AGGREGATION, nonEmpty.size()));
+            found.addAll(findFirstByFiltersChunk(chunk));
+        }
+        Optional<Rocket> first = nonEmpty.size() < filters.size() ?
+                findFirstByFilter(new Document()) :
+                Optional.empty();
+
+        List<Optional<Rocket>> rockets = new ArrayList<>(filters.size());
+        Iterator<Optional<Rocket>> matches = found.iterator();
+        for (Document filter : filters) {
+            rockets.add(filter.isEmpty() ? first.map(Rocket::copy) : matches.next());
+        }
+        return rockets;
+    }
+
+    // The $or stage lets Mongo pick indexes for the shared candidates, the facets then split them per filter
+    // in the same pass. The filters are mapped against Rocket like the ones of plain queries.
+    private List<Optional<Rocket>> findFirstByFiltersChunk(List<Document> filters) {
+        FacetOperation facets = Aggregation.facet();
+        for (int i = 0; i < filters.size(); i++) {
+            facets = facets.and(match(filters.get(i)), Aggregation.limit(1)).as(FACET_PREFIX + i);
+        }
+        TypedAggregation<Rocket> aggregation = Aggregation.newAggregation(Rocket.class,
+                match(anyOf(filters)),
+                facets);
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+
+        List<Optional<Rocket>> rockets = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            List<Document> matched = result != null ?
+                    result.getList(FACET_PREFIX + i, Document.class, List.of()) :
+                    List.of();
+            rockets.add(matched.stream()
+                    .findFirst()
+                    .map(document -> mongoTemplate.getConverter().read(Rocket.class, document)));
+        }
+        return rockets;
+    }
+
+    private static AggregationOperation match(Document filter) {
+        return context -> new Document("$match", context.getMappedObject(filter));
+    }
+
+    private static Document anyOf(List<Document> filters) {
+        return filters.size() == 1 ? filters.get(0) : new Document("$or", filters);
+    }
+
+    @Override
+    public List<Rocket> findByFilter(Document filter) {
+        return mongoTemplate.find(new BasicQuery(filter), Rocket.class);
+    }
+
+    @Override
+    public List<Rocket> sample(int size) {
+        List<Document> pipeline = List.of(new Document("$sample", new Document("size", size)));
+        List<Rocket> rockets = new ArrayList<>(size);
+        for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Rocket.class))
+                .aggregate(pipeline)) {
+            rockets.add(mongoTemplate.getConverter().read(Rocket.class, document));
+        }
+        return rockets;
+    }
+
+    @Override
+    public Stream<Rocket> streamByFilter(Document filter, int batchSize) {
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(new BasicQuery(filter).cursorBatchSize(batchSize), Rocket.class));
+    }
+
+    @Override
+    public Stream<Rocket> streamByFilterWithSpaceports(Document filter, int batchSize) {
+        CloseableIterator<Rocket> rockets =
+                mongoTemplate.stream(new BasicQuery(filter).cursorBatchSize(batchSize), Rocket.class);
+        Iterator<List<Rocket>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rockets.hasNext();
+            }
+
+            @Override
+            public List<Rocket> next() {
+                List<Rocket> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && rockets.hasNext()) {
+                    batch.add(rockets.next());
+                }
+                fetchSpaceports(batch);
+                return batch;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+                .onClose(rockets::close)
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public void fetchSpaceports(Collection<Rocket> rockets) {
+        Set<UUID> spaceportIds = rockets.stream()
+                .map(Rocket::getSpaceportId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (spaceportIds.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Spaceport> spaceports = mongoTemplate
+                .find(Query.query(Criteria.where("_id").in(spaceportIds)), Spaceport.class).stream()
+                .collect(Collectors.toMap(Spaceport::getId, Function.identity()));
+        for (Rocket rocket : rockets) {
+            Spaceport spaceport = spaceports.get(rocket.getSpaceportId());
+            if (spaceport != null) {
+                rocket.resolveSpaceport(spaceport);
+            }
+        }
+    }
+
+    @Override
+    public BulkUpdateReport bulkUpdate(List<Pair<UUID, Update>> updates) {
+        if (updates.isEmpty()) {
+            return BulkUpdateReport.EMPTY;
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Rocket.class);
+        for (Pair<UUID, Update> update : updates) {
+            operations.updateOne(Query.query(Criteria.where("_id").is(update.getFirst())), update.getSecond());
+        }
+
+        BulkWriteResult result;
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            result = operations.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+        } finally {
+            eventPublisher.publishEvent(new RocketsUpdatedEvent(updates.stream().map(Pair::getFirst).toList()));
+        }
+
+        if (result.getMatchedCount() + errors.size() < updates.size()) {
+            addMissingRocketErrors(updates, errors);
+        }
+        return new BulkUpdateReport(result.getMatchedCount(), result.getModifiedCount(), errors);
+    }
+
+    // An update that matches no document is not a write error, so the ids missing from the collection are looked up
+    private void addMissingRocketErrors(List<Pair<UUID, Update>> updates, Map<Integer, String> errors) {
+        Query query = Query.query(Criteria.where("_id").in(updates.stream().map(Pair::getFirst).toList()));
+        query.fields().include("_id");
+        Set<UUID> existing = mongoTemplate.find(query, Rocket.class).stream()
+                .map(Rocket::getId)
+                .collect(Collectors.toSet());
+
+        for (int i = 0; i < updates.size(); i++) {
+            UUID id = updates.get(i).getFirst();
+            if (!errors.containsKey(i) && !existing.contains(id)) {
+                errors.put(i, "Rocket " + id + " not found");
+            }
+        }
+    }
+
+    @Override
+    public boolean saveChanges(Rocket rocket) {
+        if (rocket.getChanges().isEmpty()) {
+            return true;
+        }
+
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rocket.getId())),
+                RocketUpdates.changesOf(rocket),
+                Rocket.class);
+        if (result.getMatchedCount() == 0) {
+            return false;
+        }
+        rocket.clearChanges();
+        eventPublisher.publishEvent(new RocketsUpdatedEvent(List.of(rocket.getId())));
+        return true;
+    }
+
+    @Override
+    public BulkUpdateReport saveAllChanges(List<Rocket> rockets) {
+        List<Integer> changed = new ArrayList<>();
+        List<Pair<UUID, Update>> updates = new ArrayList<>();
+        for (int i = 0; i < rockets.size(); i++) {
+            Rocket rocket = rockets.get(i);
+            if (!rocket.getChanges().isEmpty()) {
+                changed.add(i);
+                updates.add(Pair.of(rocket.getId(), RocketUpdates.changesOf(rocket)));
+            }
+        }
+
+        BulkUpdateReport report = bulkUpdate(updates);
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < changed.size(); i++) {
+            if (report.isFailed(i)) {
+                errors.put(changed.get(i), report.errorOf(i));
+            } else {
+                rockets.get(changed.get(i)).clearChanges();
+            }
+        }
+        return new BulkUpdateReport(report.matchedCount(), report.modifiedCount(), errors);
+    }
+}
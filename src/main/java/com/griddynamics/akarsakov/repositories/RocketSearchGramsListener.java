@@ -0,0 +1,75 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.utils.Trigrams;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+@Component
+public class RocketSearchGramsListener extends AbstractMongoEventListener<Rocket> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RocketSearchGramsListener.class);
+
+    public static final String FIELD = "searchGrams";
+    public static final String MISSION_NAME = "missionName";
+    public static final String SATELLITE_NAME = "satelliteName";
+    public static final String SATELLITE_ASSIGNMENT = "satelliteAssignment";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RocketSearchGramsListener(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public static Document buildSearchGrams(Rocket rocket) {
+        return new Document(MISSION_NAME, new ArrayList<>(Trigrams.of(Objects.toString(rocket.getMissionName(), ""))))
+                .append(SATELLITE_NAME, new ArrayList<>(Trigrams.of(rocket.getSatellites().stream()
+                        .map(Satellite::getName)
+                        .filter(Objects::nonNull)
+                        .toList())))
+                .append(SATELLITE_ASSIGNMENT, new ArrayList<>(Trigrams.of(rocket.getSatellites().stream()
+                        .map(Satellite::getAssignment)
+                        .filter(Objects::nonNull)
+                        .toList())));
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Rocket> event) {
+        Document document = event.getDocument();
+        if (document != null) {
+            document.put(FIELD, buildSearchGrams(event.getSource()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSearchGrams() {
+        Query missingGrams = Query.query(Criteria.where(FIELD).exists(false));
+        int updated = 0;
+        try (CloseableIterator<Rocket> rockets = mongoTemplate.stream(missingGrams, Rocket.class)) {
+            while (rockets.hasNext()) {
+                Rocket rocket = rockets.next();
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rocket.getId())),
+                        Update.update(FIELD, buildSearchGrams(rocket)),
+                        Rocket.class);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            LOGGER.info("Built search grams for {} rockets", updated);
+        }
+    }
+}
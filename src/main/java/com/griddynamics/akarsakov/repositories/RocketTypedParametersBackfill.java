@@ -0,0 +1,52 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+
+// Range conditions on parameters query typedParameters, so rockets stored before typed values were kept get them
+// written from their raw parameters once the application is ready
+@Component
+@ConditionalOnProperty(name = "rockets.search.typed-parameters.enabled", havingValue = "true", matchIfMissing = true)
+public class RocketTypedParametersBackfill {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RocketTypedParametersBackfill.class);
+
+    public static final String FIELD = "typedParameters";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RocketTypedParametersBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTypedParameters() {
+        Query missingTypedParameters = Query.query(Criteria.where(FIELD).exists(false));
+        int updated = 0;
+        try (CloseableIterator<Rocket> rockets = mongoTemplate.stream(missingTypedParameters, Rocket.class)) {
+            while (rockets.hasNext()) {
+                Rocket rocket = rockets.next();
+                // The typed view of a rocket read without typed values is parsed from its raw parameters
+                mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(rocket.getId()).and(FIELD).exists(false)),
+                        Update.update(FIELD, new HashMap<>(rocket.getTypedParameters())),
+                        Rocket.class);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            LOGGER.info("Stored typed parameters for {} rockets", updated);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.RocketChanges;
+import com.griddynamics.akarsakov.entities.Satellite;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Set;
+
+public final class RocketUpdates {
+
+    private RocketUpdates() {}
+
+    public static Update changesOf(Rocket rocket) {
+        RocketChanges changes = rocket.getChanges();
+        Update update = new Update();
+        Document searchGrams = null;
+
+        if (changes.isMissionNameChanged()) {
+            setOrUnset(update, "missionName", rocket.getMissionName());
+            searchGrams = RocketSearchGramsListener.buildSearchGrams(rocket);
+            update.set(gramsField(RocketSearchGramsListener.MISSION_NAME),
+                    searchGrams.get(RocketSearchGramsListener.MISSION_NAME));
+        }
+        if (changes.isSpaceportChanged()) {
+            setOrUnset(update, "spaceport", rocket.getSpaceport());
+        }
+        addParameterChanges(update, rocket, changes);
+        if (changes.isSatellitesChanged()) {
+            addSatelliteChanges(update, rocket, changes);
+            searchGrams = searchGrams != null ? searchGrams : RocketSearchGramsListener.buildSearchGrams(rocket);
+            update.set(gramsField(RocketSearchGramsListener.SATELLITE_NAME),
+                    searchGrams.get(RocketSearchGramsListener.SATELLITE_NAME));
+            update.set(gramsField(RocketSearchGramsListener.SATELLITE_ASSIGNMENT),
+                    searchGrams.get(RocketSearchGramsListener.SATELLITE_ASSIGNMENT));
+        }
+        return update;
+    }
+
+    private static void addParameterChanges(Update update, Rocket rocket, RocketChanges changes) {
+        Set<String> changedNames = changes.getChangedParameterNames();
+        // Names that are not plain field names cannot be addressed by a path, so the maps are written whole
+        if (changes.isParametersCleared() || !changedNames.stream().allMatch(RocketUpdates::isFieldName)) {
+            update.set("parameters", rocket.getParameters());
+            update.set("typedParameters", rocket.getTypedParameters());
+            return;
+        }
+
+        for (String paramName : changedNames) {
+            String value = rocket.getParameters().get(paramName);
+            if (value != null) {
+                update.set("parameters." + paramName, value);
+                setOrUnset(update, "typedParameters." + paramName, rocket.getTypedParameter(paramName));
+            } else {
+                update.unset("parameters." + paramName);
+                update.unset("typedParameters." + paramName);
+            }
+        }
+    }
+
+    // $addToSet and $pull cannot be combined on one field in a single update, so mixed changes rewrite the array
+    private static void addSatelliteChanges(Update update, Rocket rocket, RocketChanges changes) {
+        Set<Satellite> added = changes.getAddedSatellites();
+        Set<Satellite> removed = changes.getRemovedSatellites();
+
+        if (changes.isSatellitesReplaced() || (!added.isEmpty() && !removed.isEmpty())) {
+            update.set("satellites", rocket.getSatellites());
+        } else if (!added.isEmpty()) {
+            update.addToSet("satellites").each(added.toArray());
+        } else {
+            update.pull("satellites", new Document("_id", new Document("$in",
+                    removed.stream().map(Satellite::getId).toList())));
+        }
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        } else {
+            update.unset(field);
+        }
+    }
+
+    private static String gramsField(String field) {
+        return RocketSearchGramsListener.FIELD + "." + field;
+    }
+
+    private static boolean isFieldName(String paramName) {
+        return !paramName.isEmpty() && !paramName.contains(".") && !paramName.startsWith("$");
+    }
+}
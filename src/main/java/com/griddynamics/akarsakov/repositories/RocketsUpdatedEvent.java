@@ -0,0 +1,8 @@
+package com.griddynamics.akarsakov.repositories;
+
+import java.util.Collection;
+import java.util.UUID;
+
+// Published after partial updates, which bypass the save events of the mapping layer
+public record RocketsUpdatedEvent(Collection<UUID> rocketIds) {
+}
@@ -0,0 +1,201 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchContext;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Records every query command with its duration and returned documents. Queries slower than the threshold are
+// explained off the driver thread, which adds the documents examined and the winning plan to the record. Explains
+// run on their own bounded executor, when it is full the query is recorded without one.
+public class SlowQueryListener implements CommandListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+    private static final String GET_MORE = "getMore";
+
+    private final long thresholdNanos;
+    private final Function<String, MongoDatabase> databases;
+    private final Executor explainExecutor;
+    private final Consumer<QueryRecord> sink;
+    private final Map<Integer, StartedQuery> startedQueries = new ConcurrentHashMap<>();
+
+    public SlowQueryListener(Duration threshold,
+                             Function<String, MongoDatabase> databases,
+                             Executor explainExecutor,
+                             Consumer<QueryRecord> sink) {
+        this.thresholdNanos = threshold.toNanos();
+        this.databases = databases;
+        this.explainExecutor = explainExecutor;
+        this.sink = sink;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (!EXPLAINABLE_COMMANDS.contains(commandName) && !GET_MORE.equals(commandName)) {
+            return;
+        }
+        // The command document is only valid during the callback, cloning copies its raw bytes without decoding them
+        startedQueries.put(event.getRequestId(), new StartedQuery(event.getDatabaseName(),
+                event.getCommand().clone(), SearchContext.current()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedQuery started = startedQueries.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+
+        long durationNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        boolean slow = durationNanos >= thresholdNanos && EXPLAINABLE_COMMANDS.contains(event.getCommandName());
+        QueryRecord record = new QueryRecord(event.getCommandName(), collectionOf(started.command()),
+                started.command(), durationNanos, returnedOf(event.getResponse()), -1, null, started.conditions());
+
+        if (!slow) {
+            sink.accept(record);
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> sink.accept(explain(started, record)));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Explain queue is full, {} on {} is recorded without a plan",
+                    record.commandName(), record.collection());
+            sink.accept(record);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        startedQueries.remove(event.getRequestId());
+    }
+
+    private QueryRecord explain(StartedQuery started, QueryRecord record) {
+        try {
+            BsonDocument explain = new BsonDocument("explain", explainableCommand(started.command()))
+                    .append("verbosity", new BsonString("executionStats"));
+            Document result = databases.apply(started.databaseName()).runCommand(explain);
+
+            return new QueryRecord(record.commandName(), record.collection(), record.command(),
+                    record.durationNanos(), record.returned(), examinedOf(result), planOf(result),
+                    record.conditions());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not explain {} on {}", record.commandName(), record.collection(), e);
+            return record;
+        }
+    }
+
+    // Session and cluster fields belong to the original request and are rejected inside an explain
+    private static BsonDocument explainableCommand(BsonDocument command) {
+        BsonDocument explainable = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                explainable.append(key, entry.getValue());
+            }
+        }
+        return explainable;
+    }
+
+    private static String collectionOf(BsonDocument command) {
+        BsonValue collection = command.get(command.getFirstKey());
+        if (collection != null && collection.isString()) {
+            return collection.asString().getValue();
+        }
+        BsonValue getMoreCollection = command.get("collection");
+        return getMoreCollection != null && getMoreCollection.isString() ?
+                getMoreCollection.asString().getValue() : null;
+    }
+
+    private static long returnedOf(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            for (String batch : List.of("firstBatch", "nextBatch")) {
+                if (cursor.containsKey(batch)) {
+                    return cursor.getArray(batch).size();
+                }
+            }
+        }
+        if (response.containsKey("n") && response.get("n").isNumber()) {
+            return response.getNumber("n").longValue();
+        }
+        if (response.containsKey("values") && response.get("values").isArray()) {
+            return response.getArray("values").size();
+        }
+        return -1;
+    }
+
+    // Find, count and distinct report execution stats at the top level, aggregations under the first stage
+    private static long examinedOf(Document explain) {
+        Document stats = executionStatsOf(explain);
+        if (stats == null) {
+            return -1;
+        }
+        Object examined = stats.get("totalDocsExamined");
+        return examined instanceof Number number ? number.longValue() : -1;
+    }
+
+    private static Document executionStatsOf(Document explain) {
+        Document stats = explain.get("executionStats", Document.class);
+        if (stats != null) {
+            return stats;
+        }
+        List<?> stages = explain.get("stages", List.class);
+        if (stages != null && !stages.isEmpty() && stages.get(0) instanceof Document firstStage) {
+            Document cursor = firstStage.get("$cursor", Document.class);
+            return cursor != null ? cursor.get("executionStats", Document.class) : null;
+        }
+        return null;
+    }
+
+    private static Document planOf(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        if (queryPlanner == null) {
+            List<?> stages = explain.get("stages", List.class);
+            if (stages != null && !stages.isEmpty() && stages.get(0) instanceof Document firstStage
+                    && firstStage.get("$cursor") instanceof Document cursor) {
+                queryPlanner = cursor.get("queryPlanner", Document.class);
+            }
+        }
+        Document plan = queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+        return plan != null ? plan : explain;
+    }
+
+    public static void log(QueryRecord record) {
+        if (record.isExplained()) {
+            LOGGER.warn("Slow {} on {} took {} ms, returned {} of {} examined documents, conditions {}, "
+                            + "command {}, plan {}",
+                    record.commandName(), record.collection(), TimeUnit.NANOSECONDS.toMillis(record.durationNanos()),
+                    record.returned(), record.examined(), record.conditions(), record.command().toJson(),
+                    record.plan().toJson());
+        } else if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} on {} took {} us, returned {} documents, conditions {}, command {}",
+                    record.commandName(), record.collection(), TimeUnit.NANOSECONDS.toMicros(record.durationNanos()),
+                    record.returned(), record.conditions(), record.command().toJson());
+        }
+    }
+
+    private record StartedQuery(String databaseName, BsonDocument command, List<SearchCondition> conditions) {
+    }
+}
@@ -3,14 +3,17 @@ package com.griddynamics.akarsakov.repositories;
 import com.griddynamics.akarsakov.entities.Spaceport;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface SpaceportRepository extends MongoRepository<Spaceport, UUID> {
 
+    @Query(value = "{'name' : ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Spaceport> findByNameIgnoreCase(String name);
 
+    @Query(value = "{'name' : ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Spaceport> findByNameIgnoreCase(String name, Pageable pageable);
 
     List<Spaceport> findByNameLikeIgnoreCase(String namePart);
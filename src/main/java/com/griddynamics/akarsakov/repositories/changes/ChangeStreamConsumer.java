@@ -0,0 +1,259 @@
+package com.griddynamics.akarsakov.repositories.changes;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Follows the change streams of the rocket and spaceport collections and hands every change to the listeners
+// of that entity type. The streams are opened while the context starts, before any listener reads a snapshot,
+// so no change falls between a full read and the stream. Needs a replica set.
+@Component
+@ConditionalOnProperty(name = "rockets.change-streams.enabled", havingValue = "true")
+public class ChangeStreamConsumer implements SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamConsumer.class);
+
+    private static final List<Class<?>> ENTITY_TYPES = List.of(Rocket.class, Spaceport.class);
+    // ChangeStreamHistoryLost, InvalidResumeToken and ChangeStreamFatalError: the stored token can not be resumed
+    private static final Set<Integer> LOST_TOKEN_ERRORS = Set.of(286, 260, 280);
+    private static final Duration SUBSCRIPTION_TIMEOUT = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final ResumeTokenStore tokenStore;
+    private final List<EntityChangeListener<?>> listeners;
+    private final int tokenFlushEvents;
+    private final long tokenFlushIntervalMillis;
+    private final Map<String, CollectionStream<?>> streams = new ConcurrentHashMap<>();
+
+    private MessageListenerContainer container;
+    private ScheduledExecutorService tokenFlusher;
+
+    public ChangeStreamConsumer(MongoTemplate mongoTemplate,
+                                ResumeTokenStore tokenStore,
+                                List<EntityChangeListener<?>> listeners,
+                                @Value("${rockets.change-streams.token-flush-events:100}") int tokenFlushEvents,
+                                @Value("${rockets.change-streams.token-flush-interval:1s}") Duration tokenFlushInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.tokenStore = tokenStore;
+        this.listeners = listeners;
+        this.tokenFlushEvents = tokenFlushEvents;
+        this.tokenFlushIntervalMillis = tokenFlushInterval.toMillis();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        List<CollectionStream<?>> resetStreams = new ArrayList<>();
+        for (Class<?> entityType : ENTITY_TYPES) {
+            CollectionStream<?> stream = createStream(entityType);
+            if (stream != null) {
+                streams.put(stream.collection, stream);
+                if (!stream.subscribe(tokenStore.load(stream.collection))) {
+                    resetStreams.add(stream);
+                }
+            }
+        }
+        container.start();
+
+        for (CollectionStream<?> stream : streams.values()) {
+            stream.awaitSubscription();
+        }
+        resetStreams.forEach(CollectionStream::resetListeners);
+
+        // A quiet stream still stores its last position within the interval, not only once more events arrive
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-stream-token-flush-");
+        threadFactory.setDaemon(true);
+        tokenFlusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        tokenFlusher.scheduleWithFixedDelay(() -> streams.values().forEach(CollectionStream::flushToken),
+                tokenFlushIntervalMillis, tokenFlushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (container == null) {
+            return;
+        }
+        tokenFlusher.shutdownNow();
+        tokenFlusher = null;
+        container.stop();
+        streams.values().forEach(CollectionStream::flushToken);
+        streams.clear();
+        container = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null && container.isRunning();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CollectionStream<T> createStream(Class<T> entityType) {
+        List<EntityChangeListener<T>> typedListeners = listeners.stream()
+                .filter(listener -> listener.entityType() == entityType)
+                .map(listener -> (EntityChangeListener<T>) listener)
+                .toList();
+        return typedListeners.isEmpty() ? null :
+                new CollectionStream<>(entityType, mongoTemplate.getCollectionName(entityType), typedListeners);
+    }
+
+    static Object idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        if (id.isBinary()) {
+            BsonBinary binary = id.asBinary();
+            if (binary.getType() == BsonBinarySubType.UUID_LEGACY.getValue()) {
+                return binary.asUuid(UuidRepresentation.JAVA_LEGACY);
+            }
+            if (binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()) {
+                return binary.asUuid(UuidRepresentation.STANDARD);
+            }
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.isObjectId() ? id.asObjectId().getValue() : id;
+    }
+
+    private final class CollectionStream<T> {
+        private final Class<T> entityType;
+        private final String collection;
+        private final List<EntityChangeListener<T>> listeners;
+
+        private Subscription subscription;
+        private BsonDocument pendingToken;
+        private int pendingEvents;
+
+        private CollectionStream(Class<T> entityType, String collection, List<EntityChangeListener<T>> listeners) {
+            this.entityType = entityType;
+            this.collection = collection;
+            this.listeners = listeners;
+        }
+
+        // Returns whether the stream resumes from a token, a stream opened without one starts at the current time
+        private boolean subscribe(BsonDocument token) {
+            ChangeStreamRequest.ChangeStreamRequestBuilder<T> request =
+                    ChangeStreamRequest.builder(this::apply)
+                            .collection(collection)
+                            .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+            if (token != null) {
+                request.resumeAfter(token);
+            }
+            subscription = container.register(request.build(), entityType, this::onError);
+            return token != null;
+        }
+
+        private void awaitSubscription() {
+            try {
+                subscription.await(SUBSCRIPTION_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void apply(Message<ChangeStreamDocument<Document>, T> message) {
+            ChangeStreamDocument<Document> change = message.getRaw();
+            switch (change.getOperationType()) {
+                case INSERT, UPDATE, REPLACE -> {
+                    // A document deleted before the lookup has no body, its delete event follows
+                    T entity = message.getBody();
+                    if (entity != null) {
+                        listeners.forEach(listener -> listener.onUpsert(entity));
+                    }
+                }
+                case DELETE -> {
+                    Object id = idOf(change.getDocumentKey());
+                    listeners.forEach(listener -> listener.onDelete(id));
+                }
+                case DROP, DROP_DATABASE, RENAME -> resetListeners();
+                case INVALIDATE -> {
+                    restart();
+                    return;
+                }
+                default -> {
+                }
+            }
+            trackToken(change.getResumeToken());
+        }
+
+        private synchronized void trackToken(BsonDocument token) {
+            pendingToken = token;
+            pendingEvents++;
+            if (pendingEvents >= tokenFlushEvents) {
+                flushToken();
+            }
+        }
+
+        private synchronized void flushToken() {
+            if (pendingToken != null) {
+                tokenStore.save(collection, pendingToken);
+                pendingToken = null;
+            }
+            pendingEvents = 0;
+        }
+
+        private void onError(Throwable error) {
+            if (error instanceof MongoException mongoError && LOST_TOKEN_ERRORS.contains(mongoError.getCode())) {
+                LOGGER.warn("Change stream of {} can not resume, reading the collection again", collection, error);
+                restart();
+            } else {
+                LOGGER.warn("Change stream of {} failed", collection, error);
+            }
+        }
+
+        // Drops the stored position and opens a fresh stream, listeners rebuild their views once it is active
+        private void restart() {
+            synchronized (this) {
+                pendingToken = null;
+                pendingEvents = 0;
+            }
+            tokenStore.clear(collection);
+            MessageListenerContainer current = container;
+            if (current == null) {
+                return;
+            }
+            current.remove(subscription);
+            subscribe(null);
+            awaitSubscription();
+            resetListeners();
+        }
+
+        private void resetListeners() {
+            listeners.forEach(EntityChangeListener::onReset);
+        }
+    }
+}
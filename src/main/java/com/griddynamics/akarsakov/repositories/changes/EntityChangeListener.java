@@ -0,0 +1,18 @@
+package com.griddynamics.akarsakov.repositories.changes;
+
+// Receives the changes of one entity collection as they are read from its change stream. Events are delivered
+// at least once: after a restart the stream resumes from the last persisted token and may repeat a few of them.
+public interface EntityChangeListener<T> {
+
+    Class<T> entityType();
+
+    // Inserts, updates and replacements carry the stored document as it was looked up after the change
+    void onUpsert(T entity);
+
+    void onDelete(Object id);
+
+    // The stream starts without a usable resume token, so changes before it are unknown and any view
+    // built from the collection has to be read again in full
+    default void onReset() {
+    }
+}
@@ -0,0 +1,37 @@
+package com.griddynamics.akarsakov.repositories.changes;
+
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+// Keeps the last processed resume token of every change stream, so a restarted consumer continues where it stopped
+@Component
+@ConditionalOnProperty(name = "rockets.change-streams.enabled", havingValue = "true")
+public class ResumeTokenStore {
+    public static final String COLLECTION = "changeStreamResumeTokens";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResumeTokenStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public BsonDocument load(String stream) {
+        Document stored = mongoTemplate.getCollection(COLLECTION).find(new Document("_id", stream)).first();
+        Document token = stored != null ? stored.get("token", Document.class) : null;
+        return token != null ? BsonDocument.parse(token.toJson()) : null;
+    }
+
+    public void save(String stream, BsonDocument token) {
+        mongoTemplate.getCollection(COLLECTION).replaceOne(new Document("_id", stream),
+                new Document("_id", stream).append("token", Document.parse(token.toJson())),
+                new ReplaceOptions().upsert(true));
+    }
+
+    public void clear(String stream) {
+        mongoTemplate.getCollection(COLLECTION).deleteOne(new Document("_id", stream));
+    }
+}
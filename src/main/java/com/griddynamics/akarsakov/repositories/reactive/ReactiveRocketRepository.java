@@ -0,0 +1,10 @@
+package com.griddynamics.akarsakov.repositories.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import java.util.UUID;
+
+public interface ReactiveRocketRepository extends ReactiveMongoRepository<Rocket, UUID>, ReactiveRocketRepositoryCustom {
+
+}
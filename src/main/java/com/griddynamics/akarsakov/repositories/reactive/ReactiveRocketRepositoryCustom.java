@@ -0,0 +1,20 @@
+package com.griddynamics.akarsakov.repositories.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.bson.Document;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveRocketRepositoryCustom {
+
+    Mono<Rocket> findById(UUID id);
+
+    Flux<Rocket> findAll();
+
+    Mono<Rocket> findFirstByFilter(Document filter);
+
+    Flux<Rocket> streamByFilter(Document filter, int batchSize);
+
+}
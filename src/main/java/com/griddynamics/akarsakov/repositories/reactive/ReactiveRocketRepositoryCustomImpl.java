@@ -0,0 +1,94 @@
+package com.griddynamics.akarsakov.repositories.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// The reactive driver cannot resolve a DBRef without blocking, so rockets are read as raw documents
+// and the spaceports of every batch are fetched with one $in query instead
+public class ReactiveRocketRepositoryCustomImpl implements ReactiveRocketRepositoryCustom {
+    private static final int DEFAULT_BATCH_SIZE = 128;
+    private static final String SPACEPORT_FIELD = "spaceport";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveRocketRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Rocket> findById(UUID id) {
+        return findFirstByFilter(new Document("_id", id));
+    }
+
+    @Override
+    public Flux<Rocket> findAll() {
+        return streamByFilter(new Document(), DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public Mono<Rocket> findFirstByFilter(Document filter) {
+        return read(new BasicQuery(filter).limit(1), 1).next();
+    }
+
+    @Override
+    public Flux<Rocket> streamByFilter(Document filter, int batchSize) {
+        return read(new BasicQuery(filter).cursorBatchSize(batchSize), batchSize);
+    }
+
+    private Flux<Rocket> read(Query query, int batchSize) {
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Rocket.class))
+                .buffer(batchSize)
+                .concatMap(this::readBatch);
+    }
+
+    private Flux<Rocket> readBatch(List<Document> documents) {
+        Set<UUID> spaceportIds = documents.stream()
+                .map(ReactiveRocketRepositoryCustomImpl::spaceportIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Mono<Map<UUID, Spaceport>> spaceports = spaceportIds.isEmpty() ?
+                Mono.just(Map.of()) :
+                mongoTemplate.find(Query.query(Criteria.where("_id").in(spaceportIds)), Spaceport.class)
+                        .collectMap(Spaceport::getId, Function.identity());
+
+        return spaceports.flatMapIterable(byId -> documents.stream()
+                .map(document -> toRocket(document, byId))
+                .toList());
+    }
+
+    private Rocket toRocket(Document document, Map<UUID, Spaceport> spaceports) {
+        UUID spaceportId = spaceportIdOf(document);
+        Document withoutReference = new Document(document);
+        withoutReference.remove(SPACEPORT_FIELD);
+
+        Rocket rocket = mongoTemplate.getConverter().read(Rocket.class, withoutReference);
+        Spaceport spaceport = spaceportId != null ? spaceports.get(spaceportId) : null;
+        if (spaceport != null) {
+            rocket.resolveSpaceport(spaceport);
+        }
+        return rocket;
+    }
+
+    private static UUID spaceportIdOf(Document document) {
+        Object reference = document.get(SPACEPORT_FIELD);
+        Object id = null;
+        if (reference instanceof DBRef dbRef) {
+            id = dbRef.getId();
+        } else if (reference instanceof Document dbRef) {
+            id = dbRef.get("$id");
+        }
+        return id instanceof UUID spaceportId ? spaceportId : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.griddynamics.akarsakov.repositories.reactive;
+
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+public interface ReactiveSpaceportRepository extends ReactiveMongoRepository<Spaceport, UUID> {
+
+    @Query(value = "{'name' : ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    Flux<Spaceport> findByNameIgnoreCase(String name);
+
+    @Query(value = "{'name' : ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    Flux<Spaceport> findByNameIgnoreCase(String name, Pageable pageable);
+
+    Flux<Spaceport> findByNameLikeIgnoreCase(String namePart);
+
+    Flux<Spaceport> findByNameLikeIgnoreCase(String namePart, Pageable pageable);
+
+}
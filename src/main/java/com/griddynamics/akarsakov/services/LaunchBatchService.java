@@ -0,0 +1,11 @@
+package com.griddynamics.akarsakov.services;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+public interface LaunchBatchService {
+
+    List<LaunchResult> launchAll(@NonNull List<LaunchRequest> requests);
+
+}
@@ -0,0 +1,70 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.repositories.BulkUpdateReport;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.repositories.RocketUpdates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class LaunchBatchServiceImpl implements LaunchBatchService {
+
+    private final LauncherService launcherService;
+    private final RocketRepository rocketRepository;
+    private final RocketCache rocketCache;
+
+    public LaunchBatchServiceImpl(LauncherService launcherService, RocketRepository rocketRepository) {
+        this(launcherService, rocketRepository, RocketCache.disabled());
+    }
+
+    @Autowired
+    public LaunchBatchServiceImpl(LauncherService launcherService,
+                                  RocketRepository rocketRepository,
+                                  RocketCache rocketCache) {
+        this.launcherService = launcherService;
+        this.rocketRepository = rocketRepository;
+        this.rocketCache = rocketCache;
+    }
+
+    @Override
+    public List<LaunchResult> launchAll(@NonNull List<LaunchRequest> requests) {
+        for (LaunchRequest request : requests) {
+            if (request == null || request.rocket() == null || request.spaceport() == null) {
+                throw new IllegalArgumentException("Launch request must have a rocket and a spaceport");
+            }
+        }
+
+        boolean[] outcomes = new boolean[requests.size()];
+        List<Pair<UUID, Update>> updates = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            LaunchRequest request = requests.get(i);
+            outcomes[i] = launcherService.launch(request.rocket(), request.spaceport());
+            updates.add(Pair.of(request.rocket().getId(), RocketUpdates.changesOf(request.rocket())));
+        }
+
+        BulkUpdateReport report;
+        try {
+            report = rocketRepository.bulkUpdate(updates);
+        } finally {
+            rocketCache.invalidateAll(updates.stream().map(Pair::getFirst).toList());
+        }
+
+        List<LaunchResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Rocket rocket = requests.get(i).rocket();
+            if (!report.isFailed(i)) {
+                rocket.clearChanges();
+            }
+            results.add(new LaunchResult(rocket, outcomes[i], report.errorOf(i)));
+        }
+        return results;
+    }
+}
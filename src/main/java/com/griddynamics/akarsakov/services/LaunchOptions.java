@@ -0,0 +1,17 @@
+package com.griddynamics.akarsakov.services;
+
+public record LaunchOptions(int failureChance) {
+
+    public static final LaunchOptions DEFAULT = new LaunchOptions(10);
+
+    public LaunchOptions {
+        if (failureChance < 0 || failureChance > 100) {
+            throw new IllegalArgumentException("Failure chance must be between 0 and 100, got " + failureChance);
+        }
+    }
+
+    // Rolls are in [0, 100), a roll at or below the failure chance fails the launch
+    public boolean isSuccessfulRoll(int roll) {
+        return roll > failureChance;
+    }
+}
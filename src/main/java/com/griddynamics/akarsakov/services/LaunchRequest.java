@@ -0,0 +1,7 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+
+public record LaunchRequest(Rocket rocket, Spaceport spaceport) {
+}
@@ -0,0 +1,10 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+
+public record LaunchResult(Rocket rocket, boolean successful, String writeError) {
+
+    public boolean isPersisted() {
+        return writeError == null;
+    }
+}
@@ -5,11 +5,19 @@ import com.griddynamics.akarsakov.entities.Spaceport;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public interface LauncherService {
 
+    String LAUNCH_DATE_PARAMETER = "Launch date";
+    String FUEL_PARAMETER = "Fuel";
+    String SUCCESS_PARAMETER = "Success";
+
     void deliverRocketToSpaceport(@NonNull Rocket rocket, @NonNull Spaceport spaceport);
 
     boolean launch(@NonNull Rocket rocket, @NonNull Spaceport spaceport);
 
+    CompletableFuture<Boolean> launchAsync(@NonNull Rocket rocket, @NonNull Spaceport spaceport);
+
 }
@@ -3,18 +3,45 @@ package com.griddynamics.akarsakov.services;
 import com.griddynamics.akarsakov.entities.Rocket;
 import com.griddynamics.akarsakov.entities.Spaceport;
 import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class LauncherServiceImpl implements LauncherService {
+    public static final String LAUNCHES_COUNTER = "rockets.launches";
 
     private final ChanceCalculator calculator;
+    private final LaunchOptions options;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
 
     public LauncherServiceImpl(ChanceCalculator calculator) {
+        this(calculator, Runnable::run);
+    }
+
+    public LauncherServiceImpl(ChanceCalculator calculator, Executor executor) {
+        this(calculator, LaunchOptions.DEFAULT, executor);
+    }
+
+    public LauncherServiceImpl(ChanceCalculator calculator, LaunchOptions options, Executor executor) {
+        this(calculator, options, executor, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public LauncherServiceImpl(ChanceCalculator calculator, LaunchOptions options,
+                               @Qualifier("serviceExecutor") Executor executor, MeterRegistry meterRegistry) {
         this.calculator = calculator;
+        this.options = options;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -26,15 +53,23 @@ public class LauncherServiceImpl implements LauncherService {
     public boolean launch(@NonNull Rocket rocket, @NonNull Spaceport spaceport) {
         rocket.setSpaceport(spaceport);
         LocalDateTime launchDateTime = LocalDateTime.now();
-        rocket.addParameter("Launch date", launchDateTime.toString());
-        rocket.addParameter("Fuel", "100%");
+        rocket.addParameter(LAUNCH_DATE_PARAMETER, launchDateTime.toString());
+        rocket.addParameter(FUEL_PARAMETER, "100%");
 
-        int failureChance = 10;
+        boolean isLaunchSuccessful = options.isSuccessfulRoll(calculator.rollForLaunchSuccess());
 
-        boolean isLaunchSuccessful = calculator.rollForLaunchSuccess() > failureChance;
+        rocket.addParameter(SUCCESS_PARAMETER, Boolean.toString(isLaunchSuccessful));
 
-        rocket.addParameter("Success", Boolean.toString(isLaunchSuccessful));
+        // Spaceports are a small fixed set, so tagging by id keeps the number of counters bounded
+        meterRegistry.counter(LAUNCHES_COUNTER,
+                "spaceport", String.valueOf(spaceport.getId()),
+                "outcome", isLaunchSuccessful ? "success" : "failure").increment();
 
         return isLaunchSuccessful;
     }
+
+    @Override
+    public CompletableFuture<Boolean> launchAsync(@NonNull Rocket rocket, @NonNull Spaceport spaceport) {
+        return CompletableFuture.supplyAsync(() -> launch(rocket, spaceport), executor);
+    }
 }
@@ -0,0 +1,68 @@
+package com.griddynamics.akarsakov.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.akarsakov.entities.Rocket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Read-through cache of rockets by id. Cached rockets are never handed out, every lookup returns its own copy, so
+// callers may change what they get without affecting other readers. Invalidation on save is local to this JVM:
+// the cache is only safe with a single application instance, other instances writing the same rockets would leave
+// stale entries until they expire.
+public final class RocketCache {
+    public static final String CACHE_NAME = "rockets.byId";
+
+    private static final RocketCache DISABLED = new RocketCache(null);
+
+    private final Cache<UUID, Rocket> cache;
+
+    private RocketCache(Cache<UUID, Rocket> cache) {
+        this.cache = cache;
+    }
+
+    public static RocketCache create(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        Cache<UUID, Rocket> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        return new RocketCache(cache);
+    }
+
+    public static RocketCache disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    // Missing rockets are not cached, a rocket created later is found on the next lookup
+    public Rocket get(UUID id, Function<UUID, Optional<Rocket>> loader) {
+        if (cache == null) {
+            return loader.apply(id).orElse(null);
+        }
+        Rocket rocket = cache.get(id, key -> loader.apply(key).orElse(null));
+        return rocket != null ? rocket.copy() : null;
+    }
+
+    public void invalidate(UUID id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll(Collection<UUID> ids) {
+        if (cache != null) {
+            cache.invalidateAll(ids);
+        }
+    }
+}
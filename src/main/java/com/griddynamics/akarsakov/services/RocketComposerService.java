@@ -3,16 +3,26 @@ package com.griddynamics.akarsakov.services;
 import com.griddynamics.akarsakov.entities.Rocket;
 import com.griddynamics.akarsakov.entities.Satellite;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
 import org.springframework.lang.NonNull;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface RocketComposerService {
 
     Rocket getFirstRocketByConditions(List<SearchCondition> conditions);
 
+    CompletableFuture<Rocket> getFirstRocketByConditionsAsync(List<SearchCondition> conditions);
+
+    List<Rocket> getFirstRocketsByConditions(List<List<SearchCondition>> conditionSets);
+
+    SearchPlan compileSearchPlan(List<SearchCondition> conditions);
+
+    Rocket getFirstRocketByPlan(@NonNull SearchPlan plan);
+
     void addLaunchParameter(@NonNull Rocket rocket, @NonNull String paramName, @NonNull String paramValue);
 
     void setLaunchParameters(@NonNull Rocket rocket, Map<String, String> launchParameters);
@@ -21,4 +31,6 @@ public interface RocketComposerService {
 
     void setSatellites(@NonNull Rocket rocket, Set<Satellite> satellites);
 
+    boolean saveChanges(@NonNull Rocket rocket);
+
 }
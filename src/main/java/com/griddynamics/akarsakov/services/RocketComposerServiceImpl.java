@@ -3,18 +3,52 @@ package com.griddynamics.akarsakov.services;
 import com.griddynamics.akarsakov.entities.Rocket;
 import com.griddynamics.akarsakov.entities.Satellite;
 import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.index.RocketIndex;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchMetrics;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class RocketComposerServiceImpl implements RocketComposerService {
+    private final RocketRepository rocketRepository;
     private final RocketComposerServiceWorker worker;
+    private final RocketCache rocketCache;
+    private final Executor executor;
 
     public RocketComposerServiceImpl(RocketRepository rocketRepository) {
-        this.worker = new RocketComposerServiceWorker(rocketRepository);
+        this(rocketRepository, SearchPlanOptions.DEFAULT, Runnable::run);
+    }
+
+    public RocketComposerServiceImpl(RocketRepository rocketRepository,
+                                     SearchPlanOptions searchPlanOptions,
+                                     Executor executor) {
+        this(rocketRepository, searchPlanOptions, executor, Metrics.globalRegistry, RocketCache.disabled(),
+                new RocketIndex());
+    }
+
+    @Autowired
+    public RocketComposerServiceImpl(RocketRepository rocketRepository,
+                                     SearchPlanOptions searchPlanOptions,
+                                     @Qualifier("serviceExecutor") Executor executor,
+                                     MeterRegistry meterRegistry,
+                                     RocketCache rocketCache,
+                                     RocketIndex rocketIndex) {
+        this.rocketRepository = rocketRepository;
+        this.worker = new RocketComposerServiceWorker(rocketRepository, searchPlanOptions,
+                new SearchMetrics(meterRegistry), rocketCache, rocketIndex);
+        this.rocketCache = rocketCache;
+        this.executor = executor;
     }
 
     @Override
@@ -22,6 +56,26 @@ public class RocketComposerServiceImpl implements RocketComposerService {
         return worker.searchByConditions(conditions);
     }
 
+    @Override
+    public CompletableFuture<Rocket> getFirstRocketByConditionsAsync(List<SearchCondition> conditions) {
+        return CompletableFuture.supplyAsync(() -> worker.searchByConditions(conditions), executor);
+    }
+
+    @Override
+    public List<Rocket> getFirstRocketsByConditions(List<List<SearchCondition>> conditionSets) {
+        return worker.searchByConditionSets(conditionSets);
+    }
+
+    @Override
+    public SearchPlan compileSearchPlan(List<SearchCondition> conditions) {
+        return worker.compile(conditions);
+    }
+
+    @Override
+    public Rocket getFirstRocketByPlan(@NonNull SearchPlan plan) {
+        return worker.searchByPlan(plan);
+    }
+
     @Override
     public void addLaunchParameter(@NonNull Rocket rocket, @NonNull String paramName, @NonNull String paramValue) {
         rocket.addParameter(paramName, paramValue);
@@ -48,4 +102,12 @@ public class RocketComposerServiceImpl implements RocketComposerService {
         rocket.setSatellites(satellites);
     }
 
+    @Override
+    public boolean saveChanges(@NonNull Rocket rocket) {
+        try {
+            return rocketRepository.saveChanges(rocket);
+        } finally {
+            rocketCache.invalidate(rocket.getId());
+        }
+    }
 }
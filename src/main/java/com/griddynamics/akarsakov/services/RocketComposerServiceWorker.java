@@ -1,226 +1,218 @@
 package com.griddynamics.akarsakov.services;
 
 import com.griddynamics.akarsakov.entities.Rocket;
-import com.griddynamics.akarsakov.entities.Satellite;
 import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.index.RocketIndex;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
-
-import java.util.*;
-import java.util.function.Predicate;
-
-import static com.griddynamics.akarsakov.utils.TextSearchConditionsTranslator.buildSearchRegex;
-import static com.griddynamics.akarsakov.utils.NumberUtils.isNumeric;
-import static com.griddynamics.akarsakov.utils.NumberUtils.compareParamAndConditionValues;
+import com.griddynamics.akarsakov.services.search.SearchContext;
+import com.griddynamics.akarsakov.services.search.SearchMetrics;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import io.micrometer.core.instrument.Metrics;
+import org.bson.Document;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public final class RocketComposerServiceWorker {
+    private static final int CANDIDATES_BATCH_SIZE = 128;
+    // Filters estimated to keep at least this share of the rockets are not batched
+    private static final double BATCHED_FILTER_MAX_SELECTIVITY = 0.25;
+
     private final RocketRepository rocketRepository;
+    private final SearchPlanOptions searchPlanOptions;
+    private final SearchMetrics metrics;
+    private final RocketCache rocketCache;
+    private final RocketIndex rocketIndex;
 
     public RocketComposerServiceWorker(RocketRepository rocketRepository) {
-        this.rocketRepository = rocketRepository;
+        this(rocketRepository, SearchPlanOptions.DEFAULT);
     }
 
-    public Rocket searchByConditions(List<SearchCondition> conditions) {
-        List<SearchCondition> nonNullConditions = conditions != null ?
-                conditions.stream().filter(Objects::nonNull).toList() :
-                null;
-
-        Predicate<SearchCondition> hasId = (condition) -> condition.isAttributeNameSimilar("id");
-        SearchCondition rocketIdCondition = extractRocketIdCondition(nonNullConditions, hasId);
-        UUID rocketId = (UUID) rocketIdCondition.value();
-
-        return rocketId != null ?
-                findRocketWithIdInConditions(rocketId, rocketIdCondition, nonNullConditions.stream().filter(hasId.negate()).toList()) :
-                findRocketWithoutIdInConditions(nonNullConditions, hasId);
+    public RocketComposerServiceWorker(RocketRepository rocketRepository, SearchPlanOptions searchPlanOptions) {
+        this(rocketRepository, searchPlanOptions, new SearchMetrics(Metrics.globalRegistry));
     }
 
-    private SearchCondition extractRocketIdCondition(List<SearchCondition> conditions, Predicate<SearchCondition> hasId) {
-        if (conditions == null) {
-            return new SearchCondition(null, null, null);
-        }
-        return conditions.stream()
-                .filter(hasId)
-                .findFirst()
-                .orElse(new SearchCondition(null, null, null));
+    public RocketComposerServiceWorker(RocketRepository rocketRepository,
+                                       SearchPlanOptions searchPlanOptions,
+                                       SearchMetrics metrics) {
+        this(rocketRepository, searchPlanOptions, metrics, RocketCache.disabled());
     }
 
-    private Rocket findRocketWithIdInConditions(UUID rocketId,
-                                                SearchCondition rocketIdCondition,
-                                                List<SearchCondition> otherConditions) {
-        List<Rocket> rockets;
-
-        switch (rocketIdCondition.condition()) {
-            case NOT_EQUALS -> rockets = rocketRepository.findByIdNotIn(List.of(rocketId));
-            case EQUALS -> {
-                rockets = new ArrayList<>();
-                rockets.add(rocketRepository.findById(rocketId).orElse(null));
-            }
-            default -> throw new IllegalArgumentException("Search condition "
-                    + rocketIdCondition.condition().name()
-                    + " is not supported for the rocket ID parameter");
-        }
-
-        return filterRockets(rockets, otherConditions);
+    public RocketComposerServiceWorker(RocketRepository rocketRepository,
+                                       SearchPlanOptions searchPlanOptions,
+                                       SearchMetrics metrics,
+                                       RocketCache rocketCache) {
+        this(rocketRepository, searchPlanOptions, metrics, rocketCache, new RocketIndex());
     }
 
-    private Rocket findRocketWithoutIdInConditions(List<SearchCondition> conditions, Predicate<SearchCondition> hasId) {
-        List<Rocket> rockets;
-
-        Predicate<SearchCondition> hasType = (condition) -> condition.isAttributeNameSimilar("type");
-        Predicate<SearchCondition> hasMissionName = (condition) -> condition.isAttributeNameSimilar("missionName");
-
-        rockets = findRockets(conditions, hasType, hasMissionName);
-        return filterRockets(rockets, sanitizeConditions(conditions, List.of(hasId, hasType, hasMissionName)));
+    public RocketComposerServiceWorker(RocketRepository rocketRepository,
+                                       SearchPlanOptions searchPlanOptions,
+                                       SearchMetrics metrics,
+                                       RocketCache rocketCache,
+                                       RocketIndex rocketIndex) {
+        this.rocketRepository = rocketRepository;
+        this.searchPlanOptions = searchPlanOptions;
+        this.metrics = metrics;
+        this.rocketCache = rocketCache;
+        this.rocketIndex = rocketIndex;
     }
 
-    private List<Rocket> findRockets(List<SearchCondition> conditions,
-                                     Predicate<SearchCondition> hasType,
-                                     Predicate<SearchCondition> hasMissionName) {
-        List<Rocket> candidateRockets = new LinkedList<>();
+    public SearchPlan compile(List<SearchCondition> conditions) {
+        SearchPlan plan = SearchPlan.compile(conditions, searchPlanOptions);
+        metrics.recordConditions(plan);
+        return plan;
+    }
 
+    public Rocket searchByConditions(List<SearchCondition> conditions) {
         if (conditions == null) {
-            return candidateRockets;
+            return null;
         }
+        return searchByPlan(compile(conditions));
+    }
 
-        SearchCondition[] mainSearchConditions = findMainRocketSearchConditions(conditions, hasType, hasMissionName);
-        SearchCondition typeCondition = mainSearchConditions[0];
-        SearchCondition missionNameCondition = mainSearchConditions[1];
-
-        if (typeCondition == null && missionNameCondition == null) {
-            candidateRockets = rocketRepository.findAll();
-        } else {
-            if (typeCondition != null && missionNameCondition != null){
-                candidateRockets = rocketRepository.findByTypeAndMissionNameRegexes(buildSearchRegex(typeCondition),
-                        buildSearchRegex(missionNameCondition));
+    public Rocket searchByPlan(@NonNull SearchPlan plan) {
+        try (SearchContext.Scope ignored = SearchContext.open(plan.conditions())) {
+            if (rocketIndex.canAnswer(plan)) {
+                return metrics.indexSearches().record(() -> rocketIndex.findFirst(plan));
             }
-            if (typeCondition != null && missionNameCondition == null) {
-                candidateRockets = rocketRepository.findByTypeRegex(buildSearchRegex(typeCondition));
+            if (plan.rocketId() != null && rocketCache.isEnabled()) {
+                return metrics.cachedSearches().record(() -> findCached(plan));
             }
-            if (typeCondition == null) {
-                candidateRockets = rocketRepository.findByMissionNameRegex(buildSearchRegex(missionNameCondition));
+            if (!plan.hasResidualConditions()) {
+                return metrics.pushedDownSearches()
+                        .record(() -> rocketRepository.findFirstByFilter(plan.filter()).orElse(null));
             }
+            return metrics.scanSearches().record(() -> scanCandidates(plan));
         }
-
-        return candidateRockets;
     }
 
-    private Rocket filterRockets(List<Rocket> rockets, List<SearchCondition> conditions) {
-        return rockets.stream()
-                .filter(rocket -> filterRocket(rocket, conditions) != null)
-                .findFirst()
-                .orElse(null);
+    // The cached rocket stands in for the Mongo filter, so the whole plan is checked in memory
+    private Rocket findCached(SearchPlan plan) {
+        Rocket rocket = rocketCache.get(plan.rocketId(), rocketRepository::findById);
+        return plan.matches(rocket) ? rocket : null;
     }
 
-    private List<SearchCondition> sanitizeConditions(List<SearchCondition> conditions,
-                                                     List<Predicate<SearchCondition>> excludePredicates) {
-        if (conditions == null) {
-            return new ArrayList<>();
+    private Rocket scanCandidates(SearchPlan plan) {
+        try (Stream<Rocket> candidates = streamCandidates(plan)) {
+            Iterator<Rocket> iterator = candidates.iterator();
+            long scanned = 0;
+            while (iterator.hasNext()) {
+                Rocket candidate = iterator.next();
+                scanned++;
+                if (plan.matchesResidual(candidate)) {
+                    metrics.recordScan(scanned, 1);
+                    metrics.recordMatchPosition(scanned);
+                    return candidate;
+                }
+            }
+            metrics.recordScan(scanned, 0);
+            return null;
         }
-        return conditions.stream()
-                .filter(condition -> excludePredicates.stream()
-                        .noneMatch(predicate -> predicate.test(condition)))
-                .toList();
     }
 
-    private SearchCondition[] findMainRocketSearchConditions(List<SearchCondition> conditions,
-                                                             Predicate<SearchCondition> hasType,
-                                                             Predicate<SearchCondition> hasMissionName) {
-        SearchCondition[] mainConditions = new SearchCondition[2];
-
-        SearchCondition typeCondition = null;
-        SearchCondition missionNameCondition = null;
-
-        int foundConditions = 0;
-        Iterator<SearchCondition> iterator = conditions.listIterator();
-        while (foundConditions < 2 && iterator.hasNext()) {
-            SearchCondition condition = iterator.next();
-            if (hasType != null && hasType.test(condition)) {
-                typeCondition = condition;
-                foundConditions++;
-            } else if (hasMissionName != null && hasMissionName.test(condition)) {
-                missionNameCondition = condition;
-                foundConditions++;
-            }
+    public List<Rocket> searchByConditionSets(List<List<SearchCondition>> conditionSets) {
+        if (conditionSets == null) {
+            return List.of();
         }
-
-        mainConditions[0] = typeCondition;
-        mainConditions[1] = missionNameCondition;
-
-        return mainConditions;
+        return searchByPlans(conditionSets.stream()
+                .map(conditions -> conditions != null ? compile(conditions) : null)
+                .toList());
     }
 
-    private Rocket filterRocket(Rocket rocket, List<SearchCondition> conditions) {
-        boolean everythingMatches = conditions.stream().allMatch(condition -> checkCondition(rocket, condition));
-        return everythingMatches ? rocket : null;
+    public List<Rocket> searchByPlans(@NonNull List<SearchPlan> plans) {
+        List<SearchCondition> conditions = plans.stream()
+                .filter(Objects::nonNull)
+                .flatMap(plan -> plan.conditions().stream())
+                .toList();
+        try (SearchContext.Scope ignored = SearchContext.open(conditions)) {
+            return metrics.batchSearches().record(() -> searchAllPlans(plans));
+        }
     }
 
-    private boolean checkCondition(Rocket rocket, SearchCondition condition) {
-        if (rocket == null) {
-            return false;
+    private List<Rocket> searchAllPlans(List<SearchPlan> plans) {
+        Rocket[] found = new Rocket[plans.size()];
+        List<Integer> pushedDown = new ArrayList<>();
+        List<Integer> broad = new ArrayList<>();
+        List<Integer> residual = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            SearchPlan plan = plans.get(i);
+            if (plan == null) {
+                continue;
+            }
+            if (rocketIndex.canAnswer(plan)) {
+                found[i] = rocketIndex.findFirst(plan);
+            } else if (plan.hasResidualConditions()) {
+                residual.add(i);
+            } else {
+                (plan.filterSelectivity() < BATCHED_FILTER_MAX_SELECTIVITY ? pushedDown : broad).add(i);
+            }
         }
 
-        String parameterValue;
-        if (condition.isAttributeNameSimilar("type")) {
-            parameterValue = rocket.getType();
-        } else if (condition.isAttributeNameSimilar("missionName")) {
-            parameterValue = rocket.getMissionName();
-        } else if (condition.isAttributeNameSimilar("spaceport")) {
-            parameterValue = Objects.toString(rocket.getSpaceport(), null);
-        } else {
-            parameterValue = rocket.getParameters().get(condition.attributeName());
+        // A broad filter would swell the candidates every facet of the batch aggregation goes through, while on
+        // its own the first match is found after a few documents
+        for (int i : broad) {
+            found[i] = rocketRepository.findFirstByFilter(plans.get(i).filter()).orElse(null);
         }
-
-        boolean isSatisfied = false;
-        if (parameterValue != null) {
-            isSatisfied = checkParameter(parameterValue, condition);
-        } else if (!rocket.getSatellites().isEmpty()) {
-            isSatisfied = checkSatellite(rocket, condition);
+        if (!pushedDown.isEmpty()) {
+            List<Optional<Rocket>> firstRockets = rocketRepository.findFirstByFilters(pushedDown.stream()
+                    .map(i -> plans.get(i).filter())
+                    .toList());
+            for (int i = 0; i < pushedDown.size(); i++) {
+                found[pushedDown.get(i)] = firstRockets.get(i).orElse(null);
+            }
         }
-        return isSatisfied;
-    }
-
-    private boolean checkParameter(String paramValue, SearchCondition condition) {
-        boolean isSatisfied = false;
-        String value = String.valueOf(condition.value());
-
-        if (condition.condition().isNumericOnly() && !isNumeric(value)) {
-            throw new IllegalArgumentException("Numerical search condition for "
-                    + condition.attributeName() + " must have not null value.");
+        if (!residual.isEmpty()) {
+            scanResidualPlans(plans, residual, found);
         }
+        return Arrays.asList(found);
+    }
 
-        switch (condition.condition()) {
-            case NOT_EQUALS -> isSatisfied = !Objects.equals(value, paramValue);
-            case EQUALS -> isSatisfied = Objects.equals(value, paramValue);
-            case LIKE -> isSatisfied = paramValue.contains(value);
-            case LESSER_THAN -> isSatisfied = compareParamAndConditionValues(paramValue, value) < 0;
-            case GREATER_THAN -> isSatisfied = compareParamAndConditionValues(paramValue, value) > 0;
-            case LESSER_OR_EQUALS_THAN -> isSatisfied = compareParamAndConditionValues(paramValue, value) <= 0;
-            case GREATER_OR_EQUALS_THAN -> isSatisfied = compareParamAndConditionValues(paramValue, value) >= 0;
+    // All plans with in-memory conditions share one cursor over the union of their filters, so every candidate
+    // is fetched once and checked against each plan that is still unresolved
+    private void scanResidualPlans(List<SearchPlan> plans, List<Integer> residual, Rocket[] found) {
+        List<SearchPlan> residualPlans = residual.stream().map(plans::get).toList();
+        Document filter = SearchPlan.anyOf(residualPlans);
+        boolean requiresSpaceports = residualPlans.stream().anyMatch(SearchPlan::requiresSpaceports);
+
+        List<Integer> unresolved = new ArrayList<>(residual);
+        try (Stream<Rocket> candidates = requiresSpaceports ?
+                rocketRepository.streamByFilterWithSpaceports(filter, CANDIDATES_BATCH_SIZE) :
+                rocketRepository.streamByFilter(filter, CANDIDATES_BATCH_SIZE)) {
+            Iterator<Rocket> iterator = candidates.iterator();
+            long scanned = 0;
+            long matched = 0;
+            while (!unresolved.isEmpty() && iterator.hasNext()) {
+                Rocket candidate = iterator.next();
+                long position = ++scanned;
+                int unresolvedBefore = unresolved.size();
+                unresolved.removeIf(i -> {
+                    if (plans.get(i).matches(candidate)) {
+                        found[i] = candidate;
+                        metrics.recordMatchPosition(position);
+                        return true;
+                    }
+                    return false;
+                });
+                if (unresolved.size() < unresolvedBefore) {
+                    matched++;
+                }
+            }
+            metrics.recordScan(scanned, matched);
         }
-        return isSatisfied;
     }
 
-    private boolean checkSatellite(Rocket rocket, SearchCondition condition) {
-        Predicate<String> satelliteParameterCondition = (parameter) -> switch (condition.condition()) {
-            case NOT_EQUALS -> !Objects.equals(condition.value(), parameter);
-            case EQUALS -> Objects.equals(condition.value(), parameter);
-            case LIKE -> Objects.toString(parameter, "").contains(condition.value().toString());
-            default -> false;
-        };
-
-        boolean isSatisfied = false;
-
-        if (condition.isAttributeNameSimilar("satellite.name")) {
-            isSatisfied = rocket.getSatellites()
-                    .stream()
-                    .map(Satellite::getName)
-                    .anyMatch(satelliteParameterCondition);
-        }
-        if (condition.isAttributeNameSimilar("satellite.assignment")) {
-            isSatisfied = rocket.getSatellites()
-                    .stream()
-                    .map(Satellite::getAssignment)
-                    .anyMatch(satelliteParameterCondition);
-        }
-        return isSatisfied;
+    // Spaceports are referenced lazily, so residual spaceport conditions load them once per batch instead of
+    // once per rocket
+    private Stream<Rocket> streamCandidates(SearchPlan plan) {
+        return plan.requiresSpaceports() ?
+                rocketRepository.streamByFilterWithSpaceports(plan.filter(), CANDIDATES_BATCH_SIZE) :
+                rocketRepository.streamByFilter(plan.filter(), CANDIDATES_BATCH_SIZE);
     }
 }
@@ -0,0 +1,18 @@
+package com.griddynamics.akarsakov.services.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+// The rows that may satisfy one condition. Most conditions are answered by a bitmap, the rest add a filter that is
+// tested on the rows left once the bitmaps of all conditions are intersected. A null bitmap stands for every row.
+record Candidates(RoaringBitmap rows, RowFilter filter) {
+    static final Candidates ALL = new Candidates(null, RowFilter.ALL);
+    static final Candidates NONE = new Candidates(new RoaringBitmap(), RowFilter.NONE);
+
+    static Candidates of(RoaringBitmap rows) {
+        return rows.isEmpty() ? NONE : new Candidates(rows, RowFilter.ALL);
+    }
+
+    boolean isEmpty() {
+        return rows != null && rows.isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.griddynamics.akarsakov.services.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Maps each distinct string to a dense int code. Codes are never reused, a full reload starts a new dictionary.
+final class Dictionary {
+    static final int ABSENT = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    int codeOf(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : ABSENT;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    BitSet codesMatching(Predicate<String> predicate) {
+        BitSet matching = new BitSet(values.size());
+        for (int code = 0; code < values.size(); code++) {
+            if (predicate.test(values.get(code))) {
+                matching.set(code);
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,72 @@
+package com.griddynamics.akarsakov.services.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+
+// One launch parameter across all rows: the raw text dictionary-encoded with the rows of every value, numeric values
+// unboxed into a double array and kept sorted for range searches, and the rows that have the parameter at all
+final class ParameterColumn {
+    final Dictionary texts = new Dictionary();
+    final Postings textRows = new Postings();
+    final RoaringBitmap present = new RoaringBitmap();
+    final RoaringBitmap numeric = new RoaringBitmap();
+    int[] textCodes;
+    double[] numbers;
+    // Rebuilt on the first range search after a change. Changes hold the write lock of the index, range searches
+    // only the read lock, so concurrent searches agree on building it once.
+    private volatile SortedNumbers sortedNumbers;
+
+    ParameterColumn(int capacity) {
+        textCodes = new int[capacity];
+        Arrays.fill(textCodes, Dictionary.ABSENT);
+        numbers = new double[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > textCodes.length) {
+            int previous = textCodes.length;
+            textCodes = Arrays.copyOf(textCodes, capacity);
+            Arrays.fill(textCodes, previous, capacity, Dictionary.ABSENT);
+            numbers = Arrays.copyOf(numbers, capacity);
+        }
+    }
+
+    void set(int row, String text, Object typedValue) {
+        textCodes[row] = texts.encode(text);
+        textRows.add(textCodes[row], row);
+        present.add(row);
+        if (typedValue instanceof Number number) {
+            numbers[row] = number.doubleValue();
+            numeric.add(row);
+        } else {
+            numeric.remove(row);
+        }
+        sortedNumbers = null;
+    }
+
+    void clear(int row) {
+        if (!present.contains(row)) {
+            return;
+        }
+        textRows.remove(textCodes[row], row);
+        textCodes[row] = Dictionary.ABSENT;
+        present.remove(row);
+        numeric.remove(row);
+        sortedNumbers = null;
+    }
+
+    SortedNumbers sortedNumbers() {
+        SortedNumbers sorted = sortedNumbers;
+        if (sorted == null) {
+            synchronized (this) {
+                sorted = sortedNumbers;
+                if (sorted == null) {
+                    sorted = SortedNumbers.of(numeric, numbers);
+                    sortedNumbers = sorted;
+                }
+            }
+        }
+        return sorted;
+    }
+}
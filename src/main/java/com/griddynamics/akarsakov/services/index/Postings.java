@@ -0,0 +1,42 @@
+package com.griddynamics.akarsakov.services.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// The rows holding each dictionary code of a column, as compressed bitmaps. Equality and LIKE conditions become
+// unions of these bitmaps and combine with other conditions by intersection, without reading a single row.
+final class Postings {
+    private final List<RoaringBitmap> rowsByCode = new ArrayList<>();
+
+    void add(int code, int row) {
+        if (code == Dictionary.ABSENT) {
+            return;
+        }
+        while (rowsByCode.size() <= code) {
+            rowsByCode.add(new RoaringBitmap());
+        }
+        rowsByCode.get(code).add(row);
+    }
+
+    void remove(int code, int row) {
+        if (code != Dictionary.ABSENT && code < rowsByCode.size()) {
+            rowsByCode.get(code).remove(row);
+        }
+    }
+
+    // The returned bitmap is shared with the index and must not be modified
+    RoaringBitmap rows(int code) {
+        return code != Dictionary.ABSENT && code < rowsByCode.size() ? rowsByCode.get(code) : new RoaringBitmap();
+    }
+
+    RoaringBitmap union(BitSet codes) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (int code = codes.nextSetBit(0); code >= 0 && code < rowsByCode.size(); code = codes.nextSetBit(code + 1)) {
+            union.or(rowsByCode.get(code));
+        }
+        return union;
+    }
+}
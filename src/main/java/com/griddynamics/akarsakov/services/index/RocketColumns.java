@@ -0,0 +1,185 @@
+package com.griddynamics.akarsakov.services.index;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Columnar snapshot of the indexed rockets. A row keeps its number for the life of the snapshot, removed rockets
+// leave an empty row behind until the snapshot is compacted or reloaded. Next to the codes of every row each column keeps the rows
+// of every code, the codes are needed to take a row out of those bitmaps again.
+final class RocketColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_CODES = new int[0];
+
+    final Map<UUID, Integer> rowsById = new HashMap<>();
+    final RoaringBitmap live = new RoaringBitmap();
+    Rocket[] rockets = new Rocket[INITIAL_CAPACITY];
+    int size;
+
+    final Dictionary types = new Dictionary();
+    final Postings typeRows = new Postings();
+    int[] typeCodes = new int[INITIAL_CAPACITY];
+
+    final Dictionary missionNames = new Dictionary();
+    final Postings missionNameRows = new Postings();
+    int[] missionNameCodes = new int[INITIAL_CAPACITY];
+
+    final Dictionary spaceports = new Dictionary();
+    final Postings spaceportRows = new Postings();
+    int[] spaceportCodes = new int[INITIAL_CAPACITY];
+
+    final Dictionary parameterNames = new Dictionary();
+    final List<ParameterColumn> parameters = new ArrayList<>();
+
+    final RoaringBitmap withSatellites = new RoaringBitmap();
+
+    final Dictionary satelliteNames = new Dictionary();
+    final Postings satelliteNameRows = new Postings();
+    int[][] satelliteNameCodes = new int[INITIAL_CAPACITY][];
+
+    final Dictionary satelliteAssignments = new Dictionary();
+    final Postings satelliteAssignmentRows = new Postings();
+    int[][] satelliteAssignmentCodes = new int[INITIAL_CAPACITY][];
+
+    // The row holds its own copy, so the caller can go on changing the rocket it passed in
+    void put(Rocket source) {
+        insert(source.copy());
+    }
+
+    boolean remove(UUID id) {
+        Integer row = rowsById.remove(id);
+        if (row == null) {
+            return false;
+        }
+        clear(row);
+        rockets[row] = null;
+        return true;
+    }
+
+    int emptyRows() {
+        return size - rowsById.size();
+    }
+
+    // A new snapshot of the live rows in their row order. The empty rows and the dictionary codes only they used
+    // are dropped, the rows already hold their own copies.
+    RocketColumns compact() {
+        RocketColumns compacted = new RocketColumns();
+        IntIterator rows = live.getIntIterator();
+        while (rows.hasNext()) {
+            compacted.insert(rockets[rows.next()]);
+        }
+        return compacted;
+    }
+
+    ParameterColumn parameter(String name) {
+        int parameterId = parameterNames.codeOf(name);
+        return parameterId != Dictionary.ABSENT ? parameters.get(parameterId) : null;
+    }
+
+    private void insert(Rocket rocket) {
+        Integer existing = rowsById.get(rocket.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+            clear(row);
+        } else {
+            row = size++;
+            ensureCapacity(size);
+            rowsById.put(rocket.getId(), row);
+        }
+
+        rockets[row] = rocket;
+        live.add(row);
+        typeCodes[row] = types.encode(rocket.getType());
+        typeRows.add(typeCodes[row], row);
+        missionNameCodes[row] = missionNames.encode(rocket.getMissionName());
+        missionNameRows.add(missionNameCodes[row], row);
+        spaceportCodes[row] = spaceports.encode(Objects.toString(rocket.getSpaceportId(), null));
+        spaceportRows.add(spaceportCodes[row], row);
+
+        for (Map.Entry<String, String> parameter : rocket.getParameters().entrySet()) {
+            int parameterId = parameterNames.encode(parameter.getKey());
+            if (parameterId == parameters.size()) {
+                parameters.add(new ParameterColumn(rockets.length));
+            }
+            parameters.get(parameterId).set(row, parameter.getValue(),
+                    rocket.getTypedParameter(parameter.getKey()));
+        }
+
+        if (!rocket.getSatellites().isEmpty()) {
+            withSatellites.add(row);
+        }
+        satelliteNameCodes[row] = encodeSatellites(rocket, satelliteNames, Satellite::getName);
+        addRows(satelliteNameRows, satelliteNameCodes[row], row);
+        satelliteAssignmentCodes[row] = encodeSatellites(rocket, satelliteAssignments, Satellite::getAssignment);
+        addRows(satelliteAssignmentRows, satelliteAssignmentCodes[row], row);
+    }
+
+    private void clear(int row) {
+        live.remove(row);
+        typeRows.remove(typeCodes[row], row);
+        typeCodes[row] = Dictionary.ABSENT;
+        missionNameRows.remove(missionNameCodes[row], row);
+        missionNameCodes[row] = Dictionary.ABSENT;
+        spaceportRows.remove(spaceportCodes[row], row);
+        spaceportCodes[row] = Dictionary.ABSENT;
+        for (ParameterColumn column : parameters) {
+            column.clear(row);
+        }
+        withSatellites.remove(row);
+        removeRows(satelliteNameRows, satelliteNameCodes[row], row);
+        satelliteNameCodes[row] = NO_CODES;
+        removeRows(satelliteAssignmentRows, satelliteAssignmentCodes[row], row);
+        satelliteAssignmentCodes[row] = NO_CODES;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= rockets.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, rockets.length * 2);
+        rockets = Arrays.copyOf(rockets, newCapacity);
+        typeCodes = Arrays.copyOf(typeCodes, newCapacity);
+        missionNameCodes = Arrays.copyOf(missionNameCodes, newCapacity);
+        spaceportCodes = Arrays.copyOf(spaceportCodes, newCapacity);
+        satelliteNameCodes = Arrays.copyOf(satelliteNameCodes, newCapacity);
+        satelliteAssignmentCodes = Arrays.copyOf(satelliteAssignmentCodes, newCapacity);
+        for (ParameterColumn column : parameters) {
+            column.ensureCapacity(newCapacity);
+        }
+    }
+
+    private static int[] encodeSatellites(Rocket rocket, Dictionary dictionary, Function<Satellite, String> field) {
+        if (rocket.getSatellites().isEmpty()) {
+            return NO_CODES;
+        }
+        int[] codes = new int[rocket.getSatellites().size()];
+        int i = 0;
+        for (Satellite satellite : rocket.getSatellites()) {
+            codes[i++] = dictionary.encode(field.apply(satellite));
+        }
+        return codes;
+    }
+
+    private static void addRows(Postings postings, int[] codes, int row) {
+        for (int code : codes) {
+            postings.add(code, row);
+        }
+    }
+
+    private static void removeRows(Postings postings, int[] codes, int row) {
+        for (int code : codes) {
+            postings.remove(code, row);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.griddynamics.akarsakov.services.index;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process columnar copy of the rocket collection. Searches intersect the row bitmaps of their conditions, test
+// the surviving rows against the remaining column filters and only check the search plan against rows that pass,
+// so a search never touches Mongo once the index is loaded.
+// The index is not ready until the first load, and searches go to Mongo until then.
+public class RocketIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RocketColumns columns = new RocketColumns();
+    // Changes made while a load reads the collection, by id in arrival order; a null rocket is a removal
+    private Map<UUID, Rocket> changesDuringLoad;
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Changes are worth applying as soon as a load has started, even though searches wait for it to finish
+    public boolean isTrackingChanges() {
+        return ready || loading;
+    }
+
+    // Spaceports are stored as lazy references, so plans that compare loaded spaceports still need Mongo
+    public boolean canAnswer(SearchPlan plan) {
+        return ready && !plan.requiresSpaceports();
+    }
+
+    // The collection is read outside the lock, so the read may already have passed a rocket that changes meanwhile.
+    // Those changes are kept and replayed over the loaded columns before they are swapped in. Loads run one at a time.
+    public synchronized void load(Iterator<Rocket> rockets) {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new LinkedHashMap<>();
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RocketColumns loaded = new RocketColumns();
+        boolean complete = false;
+        try {
+            while (rockets.hasNext()) {
+                loaded.put(rockets.next());
+            }
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    changesDuringLoad.forEach((id, rocket) -> {
+                        if (rocket != null) {
+                            loaded.put(rocket);
+                        } else {
+                            loaded.remove(id);
+                        }
+                    });
+                    columns = compacted(loaded);
+                    ready = true;
+                }
+                changesDuringLoad = null;
+                loading = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(Rocket rocket) {
+        putAll(List.of(rocket));
+    }
+
+    public void putAll(Collection<Rocket> rockets) {
+        lock.writeLock().lock();
+        try {
+            for (Rocket rocket : rockets) {
+                columns.put(rocket);
+                if (changesDuringLoad != null) {
+                    changesDuringLoad.put(rocket.getId(), rocket.copy());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        removeAll(List.of(id));
+    }
+
+    public void removeAll(Collection<UUID> ids) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                columns.remove(id);
+                if (changesDuringLoad != null) {
+                    changesDuringLoad.put(id, null);
+                }
+            }
+            columns = compacted(columns);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removed rockets leave empty rows behind, which every scan over all rows still has to skip. The columns are
+    // rebuilt once the empty rows outnumber half the live ones.
+    private static RocketColumns compacted(RocketColumns columns) {
+        return 2 * columns.emptyRows() > columns.rowsById.size() ? columns.compact() : columns;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows are scanned in load order, new rockets are appended and updated ones keep their row, and compaction keeps
+    // the order of the remaining rows. The first match is the first in this row order, which is not necessarily the
+    // first in Mongo's natural order that searches going to Mongo return. The indexed rockets are only read under the
+    // lock, callers get a copy of the match.
+    public Rocket findFirst(SearchPlan plan) {
+        lock.readLock().lock();
+        try {
+            if (plan.rocketId() != null) {
+                Integer row = columns.rowsById.get(plan.rocketId());
+                Rocket rocket = row != null ? columns.rockets[row] : null;
+                return plan.matches(rocket) ? rocket.copy() : null;
+            }
+
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            List<RowFilter> filters = new ArrayList<>();
+            for (SearchCondition condition : plan.conditions()) {
+                Candidates candidates = RowFilters.compile(condition, columns);
+                if (candidates.isEmpty()) {
+                    return null;
+                }
+                if (candidates.rows() != null) {
+                    bitmaps.add(candidates.rows());
+                }
+                if (candidates.filter() != RowFilter.ALL) {
+                    filters.add(candidates.filter());
+                }
+            }
+
+            RoaringBitmap rows = intersect(bitmaps);
+            if (rows == null) {
+                return null;
+            }
+            Rocket[] rockets = columns.rockets;
+            RowFilter[] rowFilters = filters.toArray(new RowFilter[0]);
+            IntIterator iterator = rows.getIntIterator();
+            while (iterator.hasNext()) {
+                int row = iterator.next();
+                if (rockets[row] != null && passes(rowFilters, row) && plan.matches(rockets[row])) {
+                    return rockets[row].copy();
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Smallest bitmaps first keeps the intermediate results small, returns null when no row is left
+    private RoaringBitmap intersect(List<RoaringBitmap> bitmaps) {
+        if (bitmaps.isEmpty()) {
+            return columns.live;
+        }
+        bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        RoaringBitmap rows = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && !rows.isEmpty(); i++) {
+            rows = RoaringBitmap.and(rows, bitmaps.get(i));
+        }
+        return rows.isEmpty() ? null : rows;
+    }
+
+    private static boolean passes(RowFilter[] filters, int row) {
+        for (RowFilter filter : filters) {
+            if (!filter.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.griddynamics.akarsakov.services.index;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.repositories.RocketsUpdatedEvent;
+import com.griddynamics.akarsakov.repositories.changes.EntityChangeListener;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Keeps the index in step with Mongo: a full load once the application is ready, then every saved, updated or
+// deleted rocket is read back from Mongo so the index holds its own copy of the stored state. With change streams
+// enabled the stream is the only source of changes, which also covers writes made by other application instances.
+@Component
+@ConditionalOnProperty(name = "rockets.index.enabled", havingValue = "true")
+public class RocketIndexRefresher extends AbstractMongoEventListener<Rocket> implements EntityChangeListener<Rocket> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RocketIndexRefresher.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final RocketIndex rocketIndex;
+    private final RocketRepository rocketRepository;
+    private final boolean changeStreams;
+
+    public RocketIndexRefresher(RocketIndex rocketIndex, RocketRepository rocketRepository) {
+        this(rocketIndex, rocketRepository, false);
+    }
+
+    @Autowired
+    public RocketIndexRefresher(RocketIndex rocketIndex, RocketRepository rocketRepository,
+                                @Value("${rockets.change-streams.enabled:false}") boolean changeStreams) {
+        this.rocketIndex = rocketIndex;
+        this.rocketRepository = rocketRepository;
+        this.changeStreams = changeStreams;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // A change stream opened without a resume token has already reset, and so loaded, the index
+        if (!changeStreams || !rocketIndex.isReady()) {
+            load();
+        }
+    }
+
+    public void load() {
+        try (Stream<Rocket> rockets = rocketRepository.streamByFilter(new Document(), LOAD_BATCH_SIZE)) {
+            rocketIndex.load(rockets.iterator());
+        }
+        LOGGER.info("Loaded {} rockets into the search index", rocketIndex.size());
+    }
+
+    @Override
+    public Class<Rocket> entityType() {
+        return Rocket.class;
+    }
+
+    @Override
+    public void onUpsert(Rocket rocket) {
+        if (rocketIndex.isTrackingChanges()) {
+            rocketIndex.put(rocket);
+        }
+    }
+
+    @Override
+    public void onDelete(Object id) {
+        if (id instanceof UUID rocketId) {
+            rocketIndex.remove(rocketId);
+        }
+    }
+
+    @Override
+    public void onReset() {
+        load();
+    }
+
+    @EventListener
+    public void onRocketsUpdated(RocketsUpdatedEvent event) {
+        if (!changeStreams) {
+            refresh(event.rocketIds());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Rocket> event) {
+        if (!changeStreams) {
+            refresh(List.of(event.getSource().getId()));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Rocket> event) {
+        if (changeStreams) {
+            return;
+        }
+        if (event.getSource().get("_id") instanceof UUID id) {
+            rocketIndex.remove(id);
+        } else if (rocketIndex.isReady()) {
+            // Deletes by query carry no single id, so the index is rebuilt
+            load();
+        }
+    }
+
+    private void refresh(Collection<UUID> ids) {
+        if (!rocketIndex.isTrackingChanges() || ids.isEmpty()) {
+            return;
+        }
+        List<Rocket> found = new ArrayList<>(ids.size());
+        rocketRepository.findAllById(ids).forEach(found::add);
+
+        Set<UUID> missing = new HashSet<>(ids);
+        found.forEach(rocket -> missing.remove(rocket.getId()));
+
+        rocketIndex.putAll(found);
+        rocketIndex.removeAll(missing);
+    }
+}
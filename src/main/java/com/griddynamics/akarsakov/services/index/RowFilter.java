@@ -0,0 +1,11 @@
+package com.griddynamics.akarsakov.services.index;
+
+// Tests one row against the columns, for conditions the bitmaps can not answer. Filters may let through rows that
+// do not match, never the other way round: every row that passes is still checked against the full search plan.
+@FunctionalInterface
+interface RowFilter {
+    RowFilter ALL = row -> true;
+    RowFilter NONE = row -> false;
+
+    boolean test(int row);
+}
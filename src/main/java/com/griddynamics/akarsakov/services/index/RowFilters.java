@@ -0,0 +1,176 @@
+package com.griddynamics.akarsakov.services.index;
+
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchQueryCompiler;
+import com.griddynamics.akarsakov.utils.NumberUtils;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Translates search conditions into candidate rows. Equality, inequality and LIKE become unions and differences of
+// the column bitmaps, numeric ranges a slice of the sorted parameter values. Conditions the columns cannot answer,
+// such as loaded spaceports and dates, keep every row and are left to the search plan.
+final class RowFilters {
+    private static final double NUMERIC_TOLERANCE = 1e-9;
+
+    private RowFilters() {}
+
+    static Candidates compile(SearchCondition condition, RocketColumns columns) {
+        if (condition.isAttributeNameSimilar("id")) {
+            return Candidates.ALL;
+        }
+        if (condition.isAttributeNameSimilar("type")) {
+            return textField(condition, columns.types, columns.typeRows, columns.live);
+        }
+        if (condition.isAttributeNameSimilar("missionName")) {
+            return textField(condition, columns.missionNames, columns.missionNameRows, columns.live);
+        }
+        if (condition.isAttributeNameSimilar("spaceport")) {
+            return spaceport(condition, columns);
+        }
+        if (condition.isAttributeNameSimilar("satellite.name")) {
+            return satellites(condition, columns.satelliteNames, columns.satelliteNameRows, columns.withSatellites);
+        }
+        if (condition.isAttributeNameSimilar("satellite.assignment")) {
+            return satellites(condition, columns.satelliteAssignments, columns.satelliteAssignmentRows,
+                    columns.withSatellites);
+        }
+        return parameter(condition, columns.parameter(condition.attributeName()));
+    }
+
+    // Inequality keeps the rows without a value as well, the search plan drops them
+    private static Candidates textField(SearchCondition condition, Dictionary dictionary, Postings postings,
+                                        RoaringBitmap live) {
+        Object value = condition.value();
+        return switch (condition.condition()) {
+            case EQUALS -> Candidates.of(postings.union(codesOf(dictionary, textValues(value))));
+            case NOT_EQUALS -> Candidates.of(
+                    RoaringBitmap.andNot(live, postings.union(codesOf(dictionary, textValues(value)))));
+            case LIKE -> {
+                Pattern pattern = Pattern.compile(Pattern.quote(String.valueOf(value)),
+                        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                yield Candidates.of(postings.union(dictionary.codesMatching(text -> pattern.matcher(text).find())));
+            }
+            default -> Candidates.ALL;
+        };
+    }
+
+    private static Candidates spaceport(SearchCondition condition, RocketColumns columns) {
+        Set<UUID> spaceportIds = switch (condition.condition()) {
+            case EQUALS, NOT_EQUALS -> SearchQueryCompiler.toSpaceportIds(condition.value());
+            default -> null;
+        };
+        if (spaceportIds == null) {
+            return Candidates.ALL;
+        }
+        RoaringBitmap rows = columns.spaceportRows.union(
+                codesOf(columns.spaceports, spaceportIds.stream().map(UUID::toString).toList()));
+        return condition.condition() == SearchCondition.Condition.EQUALS ?
+                Candidates.of(rows) :
+                Candidates.of(RoaringBitmap.andNot(columns.live, rows));
+    }
+
+    private static Candidates satellites(SearchCondition condition, Dictionary dictionary, Postings postings,
+                                         RoaringBitmap withSatellites) {
+        Object value = condition.value();
+        return switch (condition.condition()) {
+            case EQUALS -> {
+                if (value == null) {
+                    yield Candidates.ALL;
+                }
+                int code = value instanceof String text ? dictionary.codeOf(text) : Dictionary.ABSENT;
+                yield Candidates.of(postings.rows(code));
+            }
+            case LIKE -> {
+                String part = String.valueOf(value);
+                yield part.isEmpty() ?
+                        Candidates.of(withSatellites) :
+                        Candidates.of(postings.union(dictionary.codesMatching(text -> text.contains(part))));
+            }
+            default -> Candidates.ALL;
+        };
+    }
+
+    private static Candidates parameter(SearchCondition condition, ParameterColumn column) {
+        if (column == null) {
+            // Every parameter condition requires the parameter, except a numeric one that may be a date
+            return condition.condition().isNumericOnly() && !isNumber(condition.value()) ?
+                    Candidates.ALL :
+                    Candidates.NONE;
+        }
+
+        String value = String.valueOf(condition.value());
+        return switch (condition.condition()) {
+            case EQUALS -> Candidates.of(column.textRows.rows(column.texts.codeOf(value)));
+            case NOT_EQUALS -> Candidates.of(
+                    RoaringBitmap.andNot(column.present, column.textRows.rows(column.texts.codeOf(value))));
+            case LIKE -> Candidates.of(column.textRows.union(column.texts.codesMatching(text -> text.contains(value))));
+            default -> isNumber(condition.value()) ? numeric(condition, column) : Candidates.ALL;
+        };
+    }
+
+    // Doubles lose precision on long and decimal values, so values within the tolerance of the operand are kept
+    // and settled by the exact comparison of the search plan. A narrow range is taken from the sorted numbers and
+    // drives the intersection, a wide one would hardly narrow the other bitmaps and is tested row by row instead.
+    private static Candidates numeric(SearchCondition condition, ParameterColumn column) {
+        double operand = new BigDecimal(String.valueOf(condition.value())).doubleValue();
+        double tolerance = NUMERIC_TOLERANCE * Math.max(1.0, Math.abs(operand));
+        double[] numbers = column.numbers;
+
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+        RowFilter filter;
+        switch (condition.condition()) {
+            case LESSER_THAN, LESSER_OR_EQUALS_THAN -> {
+                upper = operand + tolerance;
+                double bound = upper;
+                filter = row -> numbers[row] <= bound;
+            }
+            case GREATER_THAN, GREATER_OR_EQUALS_THAN -> {
+                lower = operand - tolerance;
+                double bound = lower;
+                filter = row -> numbers[row] >= bound;
+            }
+            default -> {
+                return Candidates.ALL;
+            }
+        }
+
+        SortedNumbers sorted = column.sortedNumbers();
+        int from = sorted.from(lower);
+        int to = sorted.to(upper);
+        if (from >= to) {
+            return Candidates.NONE;
+        }
+        return (long) (to - from) * 2 > sorted.size() ?
+                new Candidates(column.numeric, filter) :
+                Candidates.of(sorted.rows(from, to));
+    }
+
+    private static boolean isNumber(Object value) {
+        return value instanceof Number || (value != null && NumberUtils.isDecimal(String.valueOf(value)));
+    }
+
+    private static Collection<String> textValues(Object value) {
+        return value instanceof Collection<?> values ?
+                values.stream().map(String::valueOf).toList() :
+                List.of(String.valueOf(value));
+    }
+
+    private static BitSet codesOf(Dictionary dictionary, Collection<String> texts) {
+        BitSet codes = new BitSet();
+        for (String text : texts) {
+            int code = dictionary.codeOf(text);
+            if (code != Dictionary.ABSENT) {
+                codes.set(code);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,74 @@
+package com.griddynamics.akarsakov.services.index;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+
+// Numeric values of one parameter in ascending order, each packed into a long next to its row: the value rounded
+// to a float in the high half, the row in the low half. Rounding to float never reorders values, so rounding the
+// bounds of a range the same way finds every row of the exact range plus at most a few neighbours, which the
+// search plan drops. Range searches take two binary searches over a plain long array.
+final class SortedNumbers {
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+
+    private final long[] entries;
+
+    private SortedNumbers(long[] entries) {
+        this.entries = entries;
+    }
+
+    static SortedNumbers of(RoaringBitmap rows, double[] numbers) {
+        long[] entries = new long[rows.getCardinality()];
+        int i = 0;
+        IntIterator iterator = rows.getIntIterator();
+        while (iterator.hasNext()) {
+            int row = iterator.next();
+            entries[i++] = ((long) key(numbers[row]) << 32) | row;
+        }
+        Arrays.sort(entries);
+        return new SortedNumbers(entries);
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    // First position whose value is not below the bound
+    int from(double lower) {
+        return lower == Double.NEGATIVE_INFINITY ? 0 : firstAbove(((long) key(lower) << 32) - 1);
+    }
+
+    // Position after the last value not above the bound
+    int to(double upper) {
+        return upper == Double.POSITIVE_INFINITY ? entries.length : firstAbove(((long) key(upper) << 32) | ROW_MASK);
+    }
+
+    RoaringBitmap rows(int from, int to) {
+        RoaringBitmap rows = new RoaringBitmap();
+        for (int i = from; i < to; i++) {
+            rows.add((int) entries[i]);
+        }
+        return rows;
+    }
+
+    private int firstAbove(long entry) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] <= entry) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Float bits reordered so that signed int order is numeric order, with -0.0 folded into 0.0
+    private static int key(double value) {
+        int bits = Float.floatToIntBits((float) value + 0.0f);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+}
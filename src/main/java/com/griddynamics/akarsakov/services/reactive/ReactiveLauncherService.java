@@ -0,0 +1,14 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveLauncherService {
+
+    Mono<Rocket> deliverRocketToSpaceport(@NonNull Rocket rocket, @NonNull Spaceport spaceport);
+
+    Mono<Boolean> launch(@NonNull Rocket rocket, @NonNull Spaceport spaceport);
+
+}
@@ -0,0 +1,47 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.reactive.ReactiveRocketRepository;
+import com.griddynamics.akarsakov.services.LauncherService;
+import com.griddynamics.akarsakov.services.RocketCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+// Reuses the launch rules of LauncherService and persists the updated rocket without blocking
+@Service
+public class ReactiveLauncherServiceImpl implements ReactiveLauncherService {
+
+    private final LauncherService launcherService;
+    private final ReactiveRocketRepository rocketRepository;
+    private final RocketCache rocketCache;
+
+    public ReactiveLauncherServiceImpl(LauncherService launcherService, ReactiveRocketRepository rocketRepository) {
+        this(launcherService, rocketRepository, RocketCache.disabled());
+    }
+
+    @Autowired
+    public ReactiveLauncherServiceImpl(LauncherService launcherService,
+                                       ReactiveRocketRepository rocketRepository,
+                                       RocketCache rocketCache) {
+        this.launcherService = launcherService;
+        this.rocketRepository = rocketRepository;
+        this.rocketCache = rocketCache;
+    }
+
+    @Override
+    public Mono<Rocket> deliverRocketToSpaceport(@NonNull Rocket rocket, @NonNull Spaceport spaceport) {
+        return Mono.fromRunnable(() -> launcherService.deliverRocketToSpaceport(rocket, spaceport))
+                .then(Mono.defer(() -> rocketRepository.save(rocket)))
+                .doFinally(signal -> rocketCache.invalidate(rocket.getId()));
+    }
+
+    @Override
+    public Mono<Boolean> launch(@NonNull Rocket rocket, @NonNull Spaceport spaceport) {
+        return Mono.fromCallable(() -> launcherService.launch(rocket, spaceport))
+                .flatMap(successful -> rocketRepository.save(rocket).thenReturn(successful))
+                .doFinally(signal -> rocketCache.invalidate(rocket.getId()));
+    }
+}
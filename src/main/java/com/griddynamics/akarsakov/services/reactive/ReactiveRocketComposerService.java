@@ -0,0 +1,22 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveRocketComposerService {
+
+    Mono<Rocket> getFirstRocketByConditions(List<SearchCondition> conditions);
+
+    Flux<Rocket> getRocketsByConditions(List<SearchCondition> conditions);
+
+    SearchPlan compileSearchPlan(List<SearchCondition> conditions);
+
+    Mono<Rocket> getFirstRocketByPlan(@NonNull SearchPlan plan);
+
+}
@@ -0,0 +1,49 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.repositories.reactive.ReactiveRocketRepository;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class ReactiveRocketComposerServiceImpl implements ReactiveRocketComposerService {
+    private final ReactiveRocketComposerServiceWorker worker;
+
+    public ReactiveRocketComposerServiceImpl(ReactiveRocketRepository rocketRepository) {
+        this(rocketRepository, SearchPlanOptions.DEFAULT);
+    }
+
+    @Autowired
+    public ReactiveRocketComposerServiceImpl(ReactiveRocketRepository rocketRepository,
+                                             SearchPlanOptions searchPlanOptions) {
+        this.worker = new ReactiveRocketComposerServiceWorker(rocketRepository, searchPlanOptions);
+    }
+
+    @Override
+    public Mono<Rocket> getFirstRocketByConditions(List<SearchCondition> conditions) {
+        return worker.searchByConditions(conditions);
+    }
+
+    @Override
+    public Flux<Rocket> getRocketsByConditions(List<SearchCondition> conditions) {
+        return worker.streamByConditions(conditions);
+    }
+
+    @Override
+    public SearchPlan compileSearchPlan(List<SearchCondition> conditions) {
+        return worker.compile(conditions);
+    }
+
+    @Override
+    public Mono<Rocket> getFirstRocketByPlan(@NonNull SearchPlan plan) {
+        return worker.searchByPlan(plan);
+    }
+}
@@ -0,0 +1,60 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.repositories.reactive.ReactiveRocketRepository;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public final class ReactiveRocketComposerServiceWorker {
+    private static final int CANDIDATES_BATCH_SIZE = 128;
+
+    private final ReactiveRocketRepository rocketRepository;
+    private final SearchPlanOptions searchPlanOptions;
+
+    public ReactiveRocketComposerServiceWorker(ReactiveRocketRepository rocketRepository) {
+        this(rocketRepository, SearchPlanOptions.DEFAULT);
+    }
+
+    public ReactiveRocketComposerServiceWorker(ReactiveRocketRepository rocketRepository,
+                                               SearchPlanOptions searchPlanOptions) {
+        this.rocketRepository = rocketRepository;
+        this.searchPlanOptions = searchPlanOptions;
+    }
+
+    public SearchPlan compile(List<SearchCondition> conditions) {
+        return SearchPlan.compile(conditions, searchPlanOptions);
+    }
+
+    public Mono<Rocket> searchByConditions(List<SearchCondition> conditions) {
+        if (conditions == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> compile(conditions)).flatMap(this::searchByPlan);
+    }
+
+    public Flux<Rocket> streamByConditions(List<SearchCondition> conditions) {
+        if (conditions == null) {
+            return Flux.empty();
+        }
+        return Mono.fromCallable(() -> compile(conditions)).flatMapMany(this::streamByPlan);
+    }
+
+    public Mono<Rocket> searchByPlan(@NonNull SearchPlan plan) {
+        if (!plan.hasResidualConditions()) {
+            return rocketRepository.findFirstByFilter(plan.filter());
+        }
+        // next() cancels the candidates cursor as soon as the first rocket passes the residual conditions
+        return streamByPlan(plan).next();
+    }
+
+    public Flux<Rocket> streamByPlan(@NonNull SearchPlan plan) {
+        Flux<Rocket> candidates = rocketRepository.streamByFilter(plan.filter(), CANDIDATES_BATCH_SIZE);
+        return plan.hasResidualConditions() ? candidates.filter(plan::matchesResidual) : candidates;
+    }
+}
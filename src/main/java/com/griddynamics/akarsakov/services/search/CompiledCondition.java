@@ -0,0 +1,10 @@
+package com.griddynamics.akarsakov.services.search;
+
+import org.bson.Document;
+
+public record CompiledCondition(SearchCondition source, Document clause, RocketMatcher matcher, boolean residual) {
+
+    public boolean hasClause() {
+        return clause != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.springframework.lang.NonNull;
+
+@FunctionalInterface
+public interface RocketMatcher {
+
+    RocketMatcher ANY = rocket -> true;
+    RocketMatcher NONE = rocket -> false;
+
+    boolean matches(@NonNull Rocket rocket);
+
+}
@@ -0,0 +1,78 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Estimates from the statistics of a random sample of the stored rockets. The sample is taken in the background
+// once the statistics are older than the refresh interval, plans compiled meanwhile use the previous statistics,
+// or the heuristic guesses before the first sample.
+public class SampledSelectivityEstimator implements SelectivityEstimator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SampledSelectivityEstimator.class);
+
+    private final RocketRepository rocketRepository;
+    private final Executor executor;
+    private final int sampleSize;
+    private final long refreshIntervalMillis;
+    private final Clock clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile SelectivityEstimator statistics = HEURISTIC;
+    private volatile long sampledAt = Long.MIN_VALUE;
+
+    public SampledSelectivityEstimator(RocketRepository rocketRepository, Executor executor,
+                                       int sampleSize, Duration refreshInterval) {
+        this(rocketRepository, executor, sampleSize, refreshInterval, Clock.systemUTC());
+    }
+
+    public SampledSelectivityEstimator(RocketRepository rocketRepository, Executor executor,
+                                       int sampleSize, Duration refreshInterval, Clock clock) {
+        this.rocketRepository = rocketRepository;
+        this.executor = executor;
+        this.sampleSize = sampleSize;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public double selectivity(SearchCondition condition) {
+        if (sampledAt == Long.MIN_VALUE || clock.millis() - sampledAt >= refreshIntervalMillis) {
+            scheduleRefresh();
+        }
+        return statistics.selectivity(condition);
+    }
+
+    public void refresh() {
+        try {
+            statistics = SearchStatistics.of(rocketRepository.sample(sampleSize));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not sample rockets for search statistics", e);
+        } finally {
+            // A failed sample is retried after the interval as well, not on every search
+            sampledAt = clock.millis();
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            LOGGER.warn("Could not schedule a search statistics refresh", e);
+        }
+    }
+}
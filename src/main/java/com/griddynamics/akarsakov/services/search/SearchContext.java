@@ -0,0 +1,33 @@
+package com.griddynamics.akarsakov.services.search;
+
+import java.util.List;
+
+// Carries the conditions of the search running on the current thread, so Mongo command listeners can tell
+// which search produced a query. The sync driver notifies listeners on the calling thread.
+public final class SearchContext {
+    private static final ThreadLocal<List<SearchCondition>> CONDITIONS = new ThreadLocal<>();
+
+    private SearchContext() {}
+
+    public static Scope open(List<SearchCondition> conditions) {
+        List<SearchCondition> previous = CONDITIONS.get();
+        CONDITIONS.set(conditions);
+        return () -> {
+            if (previous != null) {
+                CONDITIONS.set(previous);
+            } else {
+                CONDITIONS.remove();
+            }
+        };
+    }
+
+    public static List<SearchCondition> current() {
+        List<SearchCondition> conditions = CONDITIONS.get();
+        return conditions != null ? conditions : List.of();
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
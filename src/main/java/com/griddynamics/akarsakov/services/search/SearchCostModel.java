@@ -0,0 +1,58 @@
+package com.griddynamics.akarsakov.services.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Orders the conditions of a plan by the expected work of rejecting a rocket: the cost of one check divided by
+// the share of rockets it rejects. Cheap and selective checks run first, the order of equally ranked conditions
+// is kept.
+final class SearchCostModel {
+    private static final double MIN_REJECTED = 1e-3;
+
+    private SearchCostModel() {}
+
+    static List<CompiledCondition> order(List<CompiledCondition> conditions, SelectivityEstimator estimator) {
+        if (conditions.size() < 2) {
+            return conditions;
+        }
+        double[] ranks = new double[conditions.size()];
+        Integer[] positions = new Integer[conditions.size()];
+        for (int i = 0; i < conditions.size(); i++) {
+            SearchCondition condition = conditions.get(i).source();
+            double selectivity = Math.min(1.0, Math.max(0.0, estimator.selectivity(condition)));
+            ranks[i] = cost(condition) / Math.max(MIN_REJECTED, 1.0 - selectivity);
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparingDouble(position -> ranks[position]));
+
+        CompiledCondition[] ordered = new CompiledCondition[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ordered[i] = conditions.get(positions[i]);
+        }
+        return List.of(ordered);
+    }
+
+    // Relative cost of checking one loaded rocket: field comparisons are cheap, parameters need a map lookup and
+    // numeric parsing, LIKE runs a regex, and serialized spaceports have to be loaded from Mongo first
+    static double cost(SearchCondition condition) {
+        boolean like = condition.condition() == SearchCondition.Condition.LIKE;
+        if (condition.isAttributeNameSimilar("id")) {
+            return 1;
+        }
+        if (condition.isAttributeNameSimilar("type") || condition.isAttributeNameSimilar("missionName")) {
+            return like ? 4 : 1;
+        }
+        if (condition.isAttributeNameSimilar("spaceport")) {
+            return SearchQueryCompiler.toSpaceportIds(condition.value()) != null && !like ? 1 : 50;
+        }
+        if (condition.isAttributeNameSimilar("satellite.name")
+                || condition.isAttributeNameSimilar("satellite.assignment")) {
+            return like ? 8 : 3;
+        }
+        if (like) {
+            return 5;
+        }
+        return condition.condition().isNumericOnly() ? 3 : 2;
+    }
+}
@@ -0,0 +1,97 @@
+package com.griddynamics.akarsakov.services.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Meters are registered once up front, so recording on the search path is a plain field access
+public final class SearchMetrics {
+    public static final String SEARCH_TIMER = "rockets.search";
+    public static final String CONDITIONS_COUNTER = "rockets.search.conditions";
+    public static final String CANDIDATES_SUMMARY = "rockets.search.candidates";
+    public static final String MATCH_POSITION_SUMMARY = "rockets.search.match.position";
+    public static final String REJECTED_COUNTER = "rockets.search.candidates.rejected";
+
+    private final Timer pushedDownSearches;
+    private final Timer scanSearches;
+    private final Timer cachedSearches;
+    private final Timer indexSearches;
+    private final Timer batchSearches;
+    private final Map<SearchCondition.Condition, Counter> conditionCounters =
+            new EnumMap<>(SearchCondition.Condition.class);
+    private final DistributionSummary candidates;
+    private final DistributionSummary matchPositions;
+    private final Counter rejectedCandidates;
+
+    public SearchMetrics(MeterRegistry registry) {
+        pushedDownSearches = searchTimer(registry, "pushdown");
+        scanSearches = searchTimer(registry, "scan");
+        cachedSearches = searchTimer(registry, "cache");
+        indexSearches = searchTimer(registry, "index");
+        batchSearches = searchTimer(registry, "batch");
+        for (SearchCondition.Condition condition : SearchCondition.Condition.values()) {
+            conditionCounters.put(condition, Counter.builder(CONDITIONS_COUNTER)
+                    .description("Search conditions compiled, by operator")
+                    .tag("operator", condition.name())
+                    .register(registry));
+        }
+        candidates = DistributionSummary.builder(CANDIDATES_SUMMARY)
+                .description("Candidates read from Mongo by an in-memory scan")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        matchPositions = DistributionSummary.builder(MATCH_POSITION_SUMMARY)
+                .description("Position of the first matching candidate within a scan")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        rejectedCandidates = Counter.builder(REJECTED_COUNTER)
+                .description("Candidates read from Mongo and filtered out in memory")
+                .register(registry);
+    }
+
+    private static Timer searchTimer(MeterRegistry registry, String path) {
+        return Timer.builder(SEARCH_TIMER)
+                .description("Time to find the first rocket matching search conditions")
+                .tag("path", path)
+                .register(registry);
+    }
+
+    public Timer pushedDownSearches() {
+        return pushedDownSearches;
+    }
+
+    public Timer scanSearches() {
+        return scanSearches;
+    }
+
+    public Timer cachedSearches() {
+        return cachedSearches;
+    }
+
+    public Timer indexSearches() {
+        return indexSearches;
+    }
+
+    public Timer batchSearches() {
+        return batchSearches;
+    }
+
+    public void recordConditions(SearchPlan plan) {
+        for (SearchCondition condition : plan.conditions()) {
+            conditionCounters.get(condition.condition()).increment();
+        }
+    }
+
+    public void recordScan(long scanned, long matched) {
+        candidates.record(scanned);
+        rejectedCandidates.increment(scanned - matched);
+    }
+
+    // Position is 1-based: the number of candidates read up to and including the match
+    public void recordMatchPosition(long position) {
+        matchPositions.record(position);
+    }
+}
@@ -0,0 +1,159 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public final class SearchPlan {
+    private final List<SearchCondition> conditions;
+    private final Document filter;
+    private final List<SearchCondition> residualConditions;
+    private final RocketMatcher[] matchers;
+    private final RocketMatcher[] residualMatchers;
+    private final UUID rocketId;
+    private final double filterSelectivity;
+
+    private SearchPlan(List<SearchCondition> conditions,
+                       Document filter,
+                       List<SearchCondition> residualConditions,
+                       RocketMatcher[] matchers,
+                       RocketMatcher[] residualMatchers,
+                       UUID rocketId,
+                       double filterSelectivity) {
+        this.conditions = conditions;
+        this.filter = filter;
+        this.residualConditions = residualConditions;
+        this.matchers = matchers;
+        this.residualMatchers = residualMatchers;
+        this.rocketId = rocketId;
+        this.filterSelectivity = filterSelectivity;
+    }
+
+    public static SearchPlan compile(List<SearchCondition> conditions) {
+        return compile(conditions, SearchPlanOptions.DEFAULT);
+    }
+
+    public static SearchPlan compile(List<SearchCondition> conditions, SearchPlanOptions options) {
+        List<SearchCondition> nonNullConditions = conditions != null ?
+                conditions.stream().filter(Objects::nonNull).toList() :
+                List.of();
+
+        List<Document> clauses = new ArrayList<>();
+        List<SearchCondition> residualConditions = new ArrayList<>();
+        List<RocketMatcher> matchers = new ArrayList<>();
+        List<RocketMatcher> residualMatchers = new ArrayList<>();
+        UUID rocketId = null;
+        double filterSelectivity = 1.0;
+
+        List<CompiledCondition> compiledConditions = new ArrayList<>(nonNullConditions.size());
+        for (SearchCondition condition : nonNullConditions) {
+            if (condition.condition() == SearchCondition.Condition.EQUALS
+                    && condition.isAttributeNameSimilar("id")
+                    && condition.value() instanceof UUID id) {
+                rocketId = id;
+            }
+            CompiledCondition compiled = SearchQueryCompiler.compile(condition, options);
+            if (compiled.hasClause()) {
+                clauses.add(compiled.clause());
+                filterSelectivity *= Math.min(1.0, Math.max(0.0,
+                        options.selectivityEstimator().selectivity(condition)));
+            }
+            compiledConditions.add(compiled);
+        }
+
+        // Mongo picks its plan from the indexes whatever order the $and clauses are in, so they keep the caller
+        // order. Only the in-memory matchers run in the order of the cost model.
+        for (CompiledCondition compiled : SearchCostModel.order(compiledConditions, options.selectivityEstimator())) {
+            if (compiled.matcher() != RocketMatcher.ANY) {
+                matchers.add(compiled.matcher());
+            }
+            if (compiled.residual()) {
+                residualConditions.add(compiled.source());
+                residualMatchers.add(compiled.matcher());
+            }
+        }
+
+        return new SearchPlan(nonNullConditions,
+                combine(clauses),
+                List.copyOf(residualConditions),
+                matchers.toArray(RocketMatcher[]::new),
+                residualMatchers.toArray(RocketMatcher[]::new),
+                rocketId,
+                filterSelectivity);
+    }
+
+    public static Document anyOf(List<SearchPlan> plans) {
+        List<Document> filters = plans.stream()
+                .map(SearchPlan::filter)
+                .distinct()
+                .toList();
+        if (filters.isEmpty() || filters.stream().anyMatch(Document::isEmpty)) {
+            return new Document();
+        }
+        return filters.size() == 1 ? filters.get(0) : new Document("$or", filters);
+    }
+
+    public List<SearchCondition> conditions() {
+        return conditions;
+    }
+
+    public Document filter() {
+        return filter;
+    }
+
+    public List<SearchCondition> residualConditions() {
+        return residualConditions;
+    }
+
+    // Set when the plan pins a single rocket by id, so the rocket can be looked up directly
+    public UUID rocketId() {
+        return rocketId;
+    }
+
+    // Estimated share of the rockets the Mongo filter keeps, taking the conditions as independent
+    public double filterSelectivity() {
+        return filterSelectivity;
+    }
+
+    public boolean hasResidualConditions() {
+        return residualMatchers.length > 0;
+    }
+
+    public boolean requiresSpaceports() {
+        return residualConditions.stream().anyMatch(condition -> condition.isAttributeNameSimilar("spaceport"));
+    }
+
+    public boolean matches(Rocket rocket) {
+        return matchesAll(rocket, matchers);
+    }
+
+    public boolean matchesResidual(Rocket rocket) {
+        return matchesAll(rocket, residualMatchers);
+    }
+
+    private static boolean matchesAll(Rocket rocket, RocketMatcher[] matchers) {
+        if (rocket == null) {
+            return false;
+        }
+        for (RocketMatcher matcher : matchers) {
+            if (!matcher.matches(rocket)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Document combine(List<Document> clauses) {
+        if (clauses.isEmpty()) {
+            return new Document();
+        }
+        if (clauses.size() == 1) {
+            return clauses.get(0);
+        }
+        return new Document("$and", clauses);
+    }
+}
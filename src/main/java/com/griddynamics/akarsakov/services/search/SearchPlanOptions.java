@@ -0,0 +1,16 @@
+package com.griddynamics.akarsakov.services.search;
+
+public record SearchPlanOptions(boolean trigramIndexEnabled,
+                                boolean typedParametersEnabled,
+                                SelectivityEstimator selectivityEstimator) {
+
+    public static final SearchPlanOptions DEFAULT = new SearchPlanOptions(false);
+
+    public SearchPlanOptions(boolean trigramIndexEnabled) {
+        this(trigramIndexEnabled, SelectivityEstimator.HEURISTIC);
+    }
+
+    public SearchPlanOptions(boolean trigramIndexEnabled, SelectivityEstimator selectivityEstimator) {
+        this(trigramIndexEnabled, true, selectivityEstimator);
+    }
+}
@@ -0,0 +1,407 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.RocketSearchGramsListener;
+import com.griddynamics.akarsakov.utils.NumericOperand;
+import com.griddynamics.akarsakov.utils.Trigrams;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.lang.NonNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static com.griddynamics.akarsakov.utils.NumberUtils.isDecimal;
+import static com.griddynamics.akarsakov.utils.NumberUtils.isNumeric;
+import static com.griddynamics.akarsakov.utils.TextSearchConditionsTranslator.buildSearchFragment;
+import static com.griddynamics.akarsakov.utils.TextSearchConditionsTranslator.toStrings;
+
+public final class SearchQueryCompiler {
+
+    private static final int UUID_LENGTH = 36;
+
+    private SearchQueryCompiler() {}
+
+    public static CompiledCondition compile(@NonNull SearchCondition condition) {
+        return compile(condition, SearchPlanOptions.DEFAULT);
+    }
+
+    public static CompiledCondition compile(@NonNull SearchCondition condition, @NonNull SearchPlanOptions options) {
+        if (condition.isAttributeNameSimilar("id")) {
+            return compileIdCondition(condition);
+        }
+        if (condition.isAttributeNameSimilar("type")) {
+            return compileTextFieldCondition(condition, "type", null, Rocket::getType, options);
+        }
+        if (condition.isAttributeNameSimilar("missionName")) {
+            return compileTextFieldCondition(condition, "missionName", RocketSearchGramsListener.MISSION_NAME,
+                    Rocket::getMissionName, options);
+        }
+        if (condition.isAttributeNameSimilar("spaceport")) {
+            return compileSpaceportCondition(condition);
+        }
+        if (condition.isAttributeNameSimilar("satellite.name")) {
+            return compileSatelliteCondition(condition, "name", RocketSearchGramsListener.SATELLITE_NAME,
+                    Satellite::getName, options);
+        }
+        if (condition.isAttributeNameSimilar("satellite.assignment")) {
+            return compileSatelliteCondition(condition, "assignment", RocketSearchGramsListener.SATELLITE_ASSIGNMENT,
+                    Satellite::getAssignment, options);
+        }
+
+        String parameterName = condition.attributeName();
+        // A non-numeric operand is rejected here, but a stored value that is not a number simply does not match:
+        // Mongo cannot fail a query on a stored value, so the matchers agree with the pushed-down filter
+        if (condition.condition().isNumericOnly()) {
+            return compileTypedParameterCondition(condition, parameterName, options);
+        }
+        RocketMatcher matcher = compileTextMatcher(condition, null,
+                rocket -> rocket.getParameters().get(parameterName));
+        if (isQueryableParameterName(parameterName)) {
+            return new CompiledCondition(condition, parameterClause(condition), matcher, false);
+        }
+        return new CompiledCondition(condition, null, matcher, true);
+    }
+
+    private static CompiledCondition compileIdCondition(SearchCondition condition) {
+        if (condition.value() == null) {
+            return new CompiledCondition(condition, null, RocketMatcher.ANY, false);
+        }
+        UUID rocketId = (UUID) condition.value();
+
+        return switch (condition.condition()) {
+            case NOT_EQUALS -> new CompiledCondition(condition,
+                    new Document("_id", new Document("$ne", rocketId)),
+                    rocket -> !rocketId.equals(rocket.getId()),
+                    false);
+            case EQUALS -> new CompiledCondition(condition,
+                    new Document("_id", rocketId),
+                    rocket -> rocketId.equals(rocket.getId()),
+                    false);
+            default -> throw new IllegalArgumentException("Search condition "
+                    + condition.condition().name()
+                    + " is not supported for the rocket ID parameter");
+        };
+    }
+
+    private static CompiledCondition compileSpaceportCondition(SearchCondition condition) {
+        Set<UUID> spaceportIds = switch (condition.condition()) {
+            case EQUALS, NOT_EQUALS -> toSpaceportIds(condition.value());
+            default -> null;
+        };
+
+        if (spaceportIds == null) {
+            // Other conditions compare the serialized spaceport, so only the presence of the reference
+            // can be checked by Mongo and the spaceport has to be loaded for the rest
+            return new CompiledCondition(condition,
+                    new Document("spaceport", new Document("$exists", true)),
+                    compileTextMatcher(condition, parseOperand(condition),
+                            rocket -> Objects.toString(rocket.getSpaceport(), null)),
+                    true);
+        }
+
+        Object idOperand = spaceportIds.size() == 1 ? spaceportIds.iterator().next() : List.copyOf(spaceportIds);
+        if (condition.condition() == SearchCondition.Condition.NOT_EQUALS) {
+            return new CompiledCondition(condition,
+                    new Document("spaceport.$id", new Document("$exists", true)
+                            .append(idOperand instanceof List ? "$nin" : "$ne", idOperand)),
+                    rocket -> {
+                        UUID spaceportId = rocket.getSpaceportId();
+                        return spaceportId != null && !spaceportIds.contains(spaceportId);
+                    },
+                    false);
+        }
+        return new CompiledCondition(condition,
+                new Document("spaceport.$id", idOperand instanceof List ? new Document("$in", idOperand) : idOperand),
+                rocket -> spaceportIds.contains(rocket.getSpaceportId()),
+                false);
+    }
+
+    // Spaceport ids named by a condition value, null when the value does not name spaceports by id
+    public static Set<UUID> toSpaceportIds(Object value) {
+        if (value instanceof Collection<?> values) {
+            Set<UUID> spaceportIds = new LinkedHashSet<>();
+            for (Object element : values) {
+                UUID spaceportId = toSpaceportId(element);
+                if (spaceportId == null) {
+                    return null;
+                }
+                spaceportIds.add(spaceportId);
+            }
+            return spaceportIds.isEmpty() ? null : Collections.unmodifiableSet(spaceportIds);
+        }
+        UUID spaceportId = toSpaceportId(value);
+        return spaceportId != null ? Set.of(spaceportId) : null;
+    }
+
+    private static UUID toSpaceportId(Object value) {
+        if (value instanceof UUID spaceportId) {
+            return spaceportId;
+        }
+        if (value instanceof Spaceport spaceport) {
+            return spaceport.getId();
+        }
+        if (value instanceof String text && text.length() == UUID_LENGTH) {
+            try {
+                return UUID.fromString(text);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static CompiledCondition compileTextFieldCondition(SearchCondition condition,
+                                                               String field,
+                                                               String gramsField,
+                                                               Function<Rocket, String> accessor,
+                                                               SearchPlanOptions options) {
+        Object value = condition.value();
+        Predicate<String> predicate = switch (condition.condition()) {
+            case NOT_EQUALS -> {
+                Set<String> excluded = toStringSet(value);
+                yield fieldValue -> !excluded.contains(fieldValue);
+            }
+            case EQUALS -> {
+                Set<String> expected = toStringSet(value);
+                yield expected::contains;
+            }
+            case LIKE -> {
+                Pattern pattern = Pattern.compile(Pattern.quote(String.valueOf(value)),
+                        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                yield fieldValue -> pattern.matcher(fieldValue).find();
+            }
+            default -> fieldValue -> true;
+        };
+
+        Document clause = new Document(field, buildSearchFragment(condition));
+        if (condition.condition() == SearchCondition.Condition.LIKE) {
+            appendGramsFilter(clause, gramsField, String.valueOf(value), options);
+        }
+
+        return new CompiledCondition(condition,
+                clause,
+                rocket -> {
+                    String fieldValue = accessor.apply(rocket);
+                    return fieldValue != null && predicate.test(fieldValue);
+                },
+                false);
+    }
+
+    private static Set<String> toStringSet(Object value) {
+        return value instanceof Collection<?> values ?
+                Set.copyOf(toStrings(values)) :
+                Set.of(String.valueOf(value));
+    }
+
+    private static CompiledCondition compileSatelliteCondition(SearchCondition condition,
+                                                               String satelliteField,
+                                                               String gramsField,
+                                                               Function<Satellite, String> accessor,
+                                                               SearchPlanOptions options) {
+        Object value = condition.value();
+
+        return switch (condition.condition()) {
+            case NOT_EQUALS -> new CompiledCondition(condition,
+                    new Document("satellites",
+                            new Document("$elemMatch", new Document(satelliteField, new Document("$ne", value)))),
+                    rocket -> anySatelliteMatches(rocket, accessor, field -> !Objects.equals(value, field)),
+                    false);
+            case EQUALS -> new CompiledCondition(condition,
+                    new Document("satellites", new Document("$elemMatch", new Document(satelliteField, value))),
+                    rocket -> anySatelliteMatches(rocket, accessor, field -> Objects.equals(value, field)),
+                    false);
+            case LIKE -> {
+                String part = value.toString();
+                yield part.isEmpty() ?
+                        new CompiledCondition(condition,
+                                new Document("satellites.0", new Document("$exists", true)),
+                                rocket -> !rocket.getSatellites().isEmpty(),
+                                false) :
+                        new CompiledCondition(condition,
+                                appendGramsFilter(new Document("satellites." + satelliteField, containsRegex(part)),
+                                        gramsField, part, options),
+                                rocket -> anySatelliteMatches(rocket, accessor,
+                                        field -> field != null && field.contains(part)),
+                                false);
+            }
+            default -> new CompiledCondition(condition, matchNothing(), RocketMatcher.NONE, false);
+        };
+    }
+
+    private static boolean anySatelliteMatches(Rocket rocket,
+                                               Function<Satellite, String> accessor,
+                                               Predicate<String> predicate) {
+        for (Satellite satellite : rocket.getSatellites()) {
+            if (predicate.test(accessor.apply(satellite))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RocketMatcher compileTextMatcher(SearchCondition condition,
+                                                    NumericOperand operand,
+                                                    Function<Rocket, String> accessor) {
+        String value = String.valueOf(condition.value());
+
+        if (operand != null) {
+            IntPredicate comparison = comparisonFor(condition.condition());
+            return rocket -> {
+                String parameterValue = accessor.apply(rocket);
+                return isDecimal(parameterValue) && comparison.test(operand.compareTo(parameterValue));
+            };
+        }
+
+        return switch (condition.condition()) {
+            case NOT_EQUALS -> rocket -> {
+                String parameterValue = accessor.apply(rocket);
+                return parameterValue != null && !value.equals(parameterValue);
+            };
+            case EQUALS -> rocket -> value.equals(accessor.apply(rocket));
+            case LIKE -> rocket -> {
+                String parameterValue = accessor.apply(rocket);
+                return parameterValue != null && parameterValue.contains(value);
+            };
+            default -> throw new IllegalStateException("Unexpected condition " + condition.condition());
+        };
+    }
+
+    // Without typed parameters in Mongo, or with an operand Decimal128 can not hold, only the presence of the parameter
+    // is queried and the matcher compares the values parsed from the raw strings
+    private static CompiledCondition compileTypedParameterCondition(SearchCondition condition,
+                                                                    String parameterName,
+                                                                    SearchPlanOptions options) {
+        IntPredicate comparison = comparisonFor(condition.condition());
+        Instant instantOperand = toInstant(condition.value());
+
+        RocketMatcher matcher;
+        Object bsonOperand;
+        if (instantOperand != null) {
+            matcher = rocket -> rocket.getTypedParameter(parameterName) instanceof Instant instant
+                    && comparison.test(instant.compareTo(instantOperand));
+            bsonOperand = Date.from(instantOperand);
+        } else {
+            NumericOperand operand = parseOperand(condition);
+            matcher = rocket -> rocket.getTypedParameter(parameterName) instanceof Number number
+                    && comparison.test(operand.compareTo(number));
+            bsonOperand = toDecimal128(operand.decimalValue());
+        }
+
+        if (!isQueryableParameterName(parameterName)) {
+            return new CompiledCondition(condition, null, matcher, true);
+        }
+        if (!options.typedParametersEnabled() || bsonOperand == null) {
+            return new CompiledCondition(condition,
+                    new Document("parameters." + parameterName, new Document("$exists", true)),
+                    matcher,
+                    true);
+        }
+        Document clause = new Document("typedParameters." + parameterName,
+                new Document(operatorFor(condition.condition()), bsonOperand));
+        return new CompiledCondition(condition, clause, matcher, false);
+    }
+
+    // Decimal128 keeps 34 significant digits within a bounded exponent and refuses to round anything beyond that
+    private static Decimal128 toDecimal128(BigDecimal value) {
+        try {
+            return new Decimal128(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Document parameterClause(SearchCondition condition) {
+        String field = "parameters." + condition.attributeName();
+        String value = String.valueOf(condition.value());
+
+        return switch (condition.condition()) {
+            case NOT_EQUALS -> new Document(field, new Document("$exists", true).append("$ne", value));
+            case EQUALS -> new Document(field, value);
+            case LIKE -> new Document(field, containsRegex(value));
+            default -> throw new IllegalArgumentException("Condition " + condition.condition() + " is numeric");
+        };
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        return null;
+    }
+
+    private static NumericOperand parseOperand(SearchCondition condition) {
+        if (!condition.condition().isNumericOnly()) {
+            return null;
+        }
+        String value = String.valueOf(condition.value());
+        if (!isNumeric(value)) {
+            throw new IllegalArgumentException("Numerical search condition for "
+                    + condition.attributeName() + " must have not null value.");
+        }
+        return NumericOperand.parse(value);
+    }
+
+    private static IntPredicate comparisonFor(SearchCondition.Condition condition) {
+        return switch (condition) {
+            case LESSER_THAN -> result -> result < 0;
+            case GREATER_THAN -> result -> result > 0;
+            case LESSER_OR_EQUALS_THAN -> result -> result <= 0;
+            case GREATER_OR_EQUALS_THAN -> result -> result >= 0;
+            default -> throw new IllegalArgumentException("Condition " + condition + " is not numeric");
+        };
+    }
+
+    private static String operatorFor(SearchCondition.Condition condition) {
+        return switch (condition) {
+            case LESSER_THAN -> "$lt";
+            case GREATER_THAN -> "$gt";
+            case LESSER_OR_EQUALS_THAN -> "$lte";
+            case GREATER_OR_EQUALS_THAN -> "$gte";
+            default -> throw new IllegalArgumentException("Condition " + condition + " is not numeric");
+        };
+    }
+
+    // Every match of a substring search contains all trigrams of the searched value, so the multikey grams
+    // index narrows the candidates and the regex next to it keeps the exact semantics
+    private static Document appendGramsFilter(Document clause,
+                                              String gramsField,
+                                              String value,
+                                              SearchPlanOptions options) {
+        if (gramsField != null && options.trigramIndexEnabled() && Trigrams.isIndexable(value)) {
+            clause.append(RocketSearchGramsListener.FIELD + "." + gramsField,
+                    new Document("$all", new ArrayList<>(Trigrams.of(value))));
+        }
+        return clause;
+    }
+
+    private static Document containsRegex(String value) {
+        return new Document("$regex", Pattern.quote(value));
+    }
+
+    private static Document matchNothing() {
+        return new Document("_id", new Document("$in", List.of()));
+    }
+
+    private static boolean isQueryableParameterName(String attributeName) {
+        return attributeName != null
+                && !attributeName.isEmpty()
+                && !attributeName.contains(".")
+                && !attributeName.startsWith("$");
+    }
+}
@@ -0,0 +1,230 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.utils.NumberUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Cardinality statistics of a sample of rockets: how many sampled rockets hold each value of the text fields,
+// spaceports, satellites and parameters, and an equi-depth histogram of every numeric parameter. Values that are
+// not in the sample are taken to be rarer than anything that is.
+public final class SearchStatistics implements SelectivityEstimator {
+    private static final int HISTOGRAM_BUCKETS = 32;
+
+    private final int rockets;
+    private final Frequencies types = new Frequencies();
+    private final Frequencies missionNames = new Frequencies();
+    private final Frequencies spaceports = new Frequencies();
+    private final Frequencies satelliteNames = new Frequencies();
+    private final Frequencies satelliteAssignments = new Frequencies();
+    private final Map<String, ParameterStatistics> parameters = new HashMap<>();
+
+    private SearchStatistics(int rockets) {
+        this.rockets = rockets;
+    }
+
+    public static SearchStatistics of(Collection<Rocket> sample) {
+        SearchStatistics statistics = new SearchStatistics(sample.size());
+        Map<String, double[]> numbers = new HashMap<>();
+        Map<String, Integer> numberCounts = new HashMap<>();
+
+        for (Rocket rocket : sample) {
+            statistics.types.add(rocket.getType());
+            statistics.missionNames.add(rocket.getMissionName());
+            statistics.spaceports.add(Objects.toString(rocket.getSpaceportId(), null));
+            statistics.satelliteNames.addAll(satelliteValues(rocket, Satellite::getName));
+            statistics.satelliteAssignments.addAll(satelliteValues(rocket, Satellite::getAssignment));
+
+            for (Map.Entry<String, String> parameter : rocket.getParameters().entrySet()) {
+                statistics.parameters.computeIfAbsent(parameter.getKey(), name -> new ParameterStatistics())
+                        .texts.add(parameter.getValue());
+                if (rocket.getTypedParameter(parameter.getKey()) instanceof Number number) {
+                    int count = numberCounts.merge(parameter.getKey(), 1, Integer::sum);
+                    double[] values = numbers.computeIfAbsent(parameter.getKey(), name -> new double[sample.size()]);
+                    values[count - 1] = number.doubleValue();
+                }
+            }
+        }
+
+        numbers.forEach((name, values) -> statistics.parameters.get(name)
+                .setNumbers(Arrays.copyOf(values, numberCounts.get(name))));
+        return statistics;
+    }
+
+    public int sampleSize() {
+        return rockets;
+    }
+
+    @Override
+    public double selectivity(SearchCondition condition) {
+        if (rockets == 0) {
+            return HEURISTIC.selectivity(condition);
+        }
+        if (condition.isAttributeNameSimilar("id")) {
+            return condition.condition() == SearchCondition.Condition.EQUALS ? unseen() : 1.0;
+        }
+        if (condition.isAttributeNameSimilar("type")) {
+            return types.estimate(condition.condition(), condition.value(), rockets);
+        }
+        if (condition.isAttributeNameSimilar("missionName")) {
+            return missionNames.estimate(condition.condition(), condition.value(), rockets);
+        }
+        if (condition.isAttributeNameSimilar("spaceport")) {
+            Set<UUID> spaceportIds = SearchQueryCompiler.toSpaceportIds(condition.value());
+            return spaceportIds != null ?
+                    spaceports.estimate(condition.condition(),
+                            spaceportIds.stream().map(UUID::toString).toList(), rockets) :
+                    spaceports.present() / (double) rockets;
+        }
+        if (condition.isAttributeNameSimilar("satellite.name")) {
+            return satelliteNames.estimate(condition.condition(), condition.value(), rockets);
+        }
+        if (condition.isAttributeNameSimilar("satellite.assignment")) {
+            return satelliteAssignments.estimate(condition.condition(), condition.value(), rockets);
+        }
+
+        ParameterStatistics parameter = parameters.get(condition.attributeName());
+        return parameter != null ? parameter.estimate(condition, rockets) : unseen();
+    }
+
+    private double unseen() {
+        return 0.5 / rockets;
+    }
+
+    private static Collection<String> textValues(Object value) {
+        return value instanceof Collection<?> values ?
+                values.stream().map(String::valueOf).toList() :
+                List.of(String.valueOf(value));
+    }
+
+    private static Set<String> satelliteValues(Rocket rocket, Function<Satellite, String> field) {
+        Set<String> values = new HashSet<>();
+        for (Satellite satellite : rocket.getSatellites()) {
+            String value = field.apply(satellite);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    // Number of sampled rockets holding each value of one attribute
+    private static final class Frequencies {
+        private final Map<String, Integer> counts = new HashMap<>();
+        private int present;
+
+        void add(String value) {
+            if (value != null) {
+                counts.merge(value, 1, Integer::sum);
+                present++;
+            }
+        }
+
+        void addAll(Set<String> values) {
+            values.forEach(value -> counts.merge(value, 1, Integer::sum));
+            if (!values.isEmpty()) {
+                present++;
+            }
+        }
+
+        int present() {
+            return present;
+        }
+
+        // LIKE hit rates are taken from the sampled values, case-insensitively like the field searches, and for
+        // the value as a whole the way it is searched
+        double estimate(SearchCondition.Condition condition, Object value, int rockets) {
+            return switch (condition) {
+                case EQUALS -> Math.min(present, equalTo(textValues(value))) / (double) rockets;
+                case NOT_EQUALS -> Math.max(0.0, present - equalTo(textValues(value))) / rockets;
+                case LIKE -> {
+                    String part = String.valueOf(value).toLowerCase(Locale.ROOT);
+                    int hits = 0;
+                    for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                        if (count.getKey().toLowerCase(Locale.ROOT).contains(part)) {
+                            hits += count.getValue();
+                        }
+                    }
+                    yield Math.max(0.5, Math.min(present, hits)) / rockets;
+                }
+                default -> 0.0;
+            };
+        }
+
+        private double equalTo(Collection<String> values) {
+            double matching = 0;
+            for (String value : values) {
+                Integer count = counts.get(value);
+                matching += count != null ? count : 0.5;
+            }
+            return matching;
+        }
+    }
+
+    private static final class ParameterStatistics {
+        private final Frequencies texts = new Frequencies();
+        private int numbers;
+        // Bounds of equally filled buckets over the sorted numeric values
+        private double[] histogram = new double[0];
+
+        void setNumbers(double[] values) {
+            Arrays.sort(values);
+            numbers = values.length;
+            int buckets = Math.min(HISTOGRAM_BUCKETS, values.length - 1);
+            histogram = new double[buckets + 1];
+            for (int i = 0; i <= buckets; i++) {
+                histogram[i] = values[buckets == 0 ? 0 : (int) ((long) i * (values.length - 1) / buckets)];
+            }
+        }
+
+        double estimate(SearchCondition condition, int rockets) {
+            if (!condition.condition().isNumericOnly()) {
+                return texts.estimate(condition.condition(), String.valueOf(condition.value()), rockets);
+            }
+            Object value = condition.value();
+            if (!(value instanceof Number) && (value == null || !NumberUtils.isDecimal(String.valueOf(value)))) {
+                // Dates are compared as text, the parameter only has to be there
+                return texts.present() / (3.0 * rockets);
+            }
+            if (numbers == 0) {
+                return 0.0;
+            }
+            double below = fractionBelow(new BigDecimal(String.valueOf(value)).doubleValue());
+            double kept = switch (condition.condition()) {
+                case LESSER_THAN, LESSER_OR_EQUALS_THAN -> below;
+                default -> 1.0 - below;
+            };
+            return Math.max(0.5, kept * numbers) / rockets;
+        }
+
+        // Interpolates linearly inside the bucket holding the value
+        private double fractionBelow(double value) {
+            int buckets = histogram.length - 1;
+            if (value <= histogram[0]) {
+                return 0.0;
+            }
+            if (value >= histogram[buckets]) {
+                return 1.0;
+            }
+            int bucket = 0;
+            while (bucket < buckets - 1 && histogram[bucket + 1] <= value) {
+                bucket++;
+            }
+            double width = histogram[bucket + 1] - histogram[bucket];
+            double within = width > 0 ? (value - histogram[bucket]) / width : 0.0;
+            return (bucket + within) / buckets;
+        }
+    }
+}
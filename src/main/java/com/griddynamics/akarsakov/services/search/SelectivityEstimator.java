@@ -0,0 +1,17 @@
+package com.griddynamics.akarsakov.services.search;
+
+// Estimates the share of rockets a condition keeps, between 0 and 1. Plans use it to run the conditions that
+// reject the most rockets for the least work first.
+@FunctionalInterface
+public interface SelectivityEstimator {
+
+    // Fixed guesses for when nothing is known about the stored rockets
+    SelectivityEstimator HEURISTIC = condition -> switch (condition.condition()) {
+        case EQUALS -> condition.isAttributeNameSimilar("id") ? 0.001 : 0.1;
+        case NOT_EQUALS -> 0.9;
+        case LIKE -> 0.25;
+        default -> 1.0 / 3;
+    };
+
+    double selectivity(SearchCondition condition);
+}
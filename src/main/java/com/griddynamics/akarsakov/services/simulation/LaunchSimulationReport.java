@@ -0,0 +1,9 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record LaunchSimulationReport(LaunchStatistics total,
+                                     Map<UUID, LaunchStatistics> bySpaceport,
+                                     Map<String, LaunchStatistics> byRocketType) {
+}
@@ -0,0 +1,16 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import com.griddynamics.akarsakov.services.LaunchRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public interface LaunchSimulationService {
+
+    LaunchSimulationReport simulate(@NonNull List<LaunchRequest> requests, int iterations);
+
+    LaunchSimulationReport simulate(@NonNull List<LaunchRequest> requests, @NonNull LaunchSimulationSettings settings);
+
+}
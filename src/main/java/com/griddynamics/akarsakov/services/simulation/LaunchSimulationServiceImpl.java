@@ -0,0 +1,94 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import com.griddynamics.akarsakov.services.LaunchOptions;
+import com.griddynamics.akarsakov.services.LaunchRequest;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class LaunchSimulationServiceImpl implements LaunchSimulationService {
+
+    private final ChanceCalculator calculator;
+    private final LaunchOptions options;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public LaunchSimulationServiceImpl(ChanceCalculator calculator, LaunchOptions options) {
+        this(calculator, options, ForkJoinPool.commonPool());
+    }
+
+    public LaunchSimulationServiceImpl(ChanceCalculator calculator, LaunchOptions options, ForkJoinPool pool) {
+        this.calculator = calculator;
+        this.options = options;
+        this.pool = pool;
+    }
+
+    @Override
+    public LaunchSimulationReport simulate(@NonNull List<LaunchRequest> requests, int iterations) {
+        return simulate(requests, new LaunchSimulationSettings(iterations, options, null));
+    }
+
+    @Override
+    public LaunchSimulationReport simulate(@NonNull List<LaunchRequest> requests,
+                                           @NonNull LaunchSimulationSettings settings) {
+        // Rockets and spaceports are only read: each request is reduced to a pair of group indexes up front
+        Map<UUID, Integer> spaceportIndexes = new LinkedHashMap<>();
+        Map<String, Integer> typeIndexes = new LinkedHashMap<>();
+        int[] spaceportGroups = new int[requests.size()];
+        int[] typeGroups = new int[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            LaunchRequest request = requests.get(i);
+            if (request == null || request.rocket() == null || request.spaceport() == null) {
+                throw new IllegalArgumentException("Launch request must have a rocket and a spaceport");
+            }
+            spaceportGroups[i] = spaceportIndexes.computeIfAbsent(request.spaceport().getId(),
+                    id -> spaceportIndexes.size());
+            typeGroups[i] = typeIndexes.computeIfAbsent(request.rocket().getType(), type -> typeIndexes.size());
+        }
+
+        int spaceportCount = spaceportIndexes.size();
+        int resultSize = spaceportCount + typeIndexes.size();
+        long trials = (long) requests.size() * settings.iterations();
+
+        long[] successes = new long[resultSize];
+        if (trials > 0) {
+            ChanceCalculator rootCalculator = settings.seed() != null
+                    ? ChanceCalculator.seeded(settings.seed())
+                    : calculator;
+            successes = pool.invoke(new LaunchSimulationTask(spaceportGroups, typeGroups, spaceportCount, resultSize,
+                    settings.iterations(), settings.launchOptions(), rootCalculator, 0, trials));
+        }
+
+        long[] launches = new long[resultSize];
+        for (int i = 0; i < requests.size(); i++) {
+            launches[spaceportGroups[i]] += settings.iterations();
+            launches[spaceportCount + typeGroups[i]] += settings.iterations();
+        }
+
+        Map<UUID, LaunchStatistics> bySpaceport = new HashMap<>(spaceportIndexes.size() * 2);
+        long totalSuccesses = 0;
+        for (Map.Entry<UUID, Integer> entry : spaceportIndexes.entrySet()) {
+            int group = entry.getValue();
+            bySpaceport.put(entry.getKey(), new LaunchStatistics(launches[group], successes[group]));
+            totalSuccesses += successes[group];
+        }
+
+        Map<String, LaunchStatistics> byRocketType = new HashMap<>(typeIndexes.size() * 2);
+        for (Map.Entry<String, Integer> entry : typeIndexes.entrySet()) {
+            int group = spaceportCount + entry.getValue();
+            byRocketType.put(entry.getKey(), new LaunchStatistics(launches[group], successes[group]));
+        }
+
+        return new LaunchSimulationReport(new LaunchStatistics(trials, totalSuccesses), bySpaceport, byRocketType);
+    }
+}
@@ -0,0 +1,16 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import com.griddynamics.akarsakov.services.LaunchOptions;
+
+// A null seed rolls with the shared calculator, a fixed seed makes the whole run reproducible
+public record LaunchSimulationSettings(int iterations, LaunchOptions launchOptions, Long seed) {
+
+    public LaunchSimulationSettings {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Simulation needs at least one iteration, got " + iterations);
+        }
+        if (launchOptions == null) {
+            throw new IllegalArgumentException("Launch options must be set");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import com.griddynamics.akarsakov.services.LaunchOptions;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+
+import java.util.concurrent.RecursiveTask;
+
+// Trials are numbered request by request: trial t is iteration (t % iterations) of request (t / iterations).
+// The result holds successes per spaceport group followed by successes per rocket type group.
+class LaunchSimulationTask extends RecursiveTask<long[]> {
+    static final int THRESHOLD = 1 << 16;
+    private static final int ROLL_BATCH = 1 << 12;
+
+    private final int[] spaceportGroups;
+    private final int[] typeGroups;
+    private final int spaceportCount;
+    private final int resultSize;
+    private final int iterations;
+    private final LaunchOptions options;
+    private final ChanceCalculator calculator;
+    private final long from;
+    private final long to;
+
+    LaunchSimulationTask(int[] spaceportGroups, int[] typeGroups, int spaceportCount, int resultSize,
+                         int iterations, LaunchOptions options, ChanceCalculator calculator, long from, long to) {
+        this.spaceportGroups = spaceportGroups;
+        this.typeGroups = typeGroups;
+        this.spaceportCount = spaceportCount;
+        this.resultSize = resultSize;
+        this.iterations = iterations;
+        this.options = options;
+        this.calculator = calculator;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected long[] compute() {
+        if (to - from <= THRESHOLD) {
+            return simulate();
+        }
+
+        // The calculator is split before forking, so the tree of generators depends only on the trial range
+        long middle = from + (to - from) / 2;
+        LaunchSimulationTask left = subtask(from, middle, calculator.split());
+        LaunchSimulationTask right = subtask(middle, to, calculator);
+        left.fork();
+
+        long[] successes = right.compute();
+        long[] leftSuccesses = left.join();
+        for (int i = 0; i < successes.length; i++) {
+            successes[i] += leftSuccesses[i];
+        }
+        return successes;
+    }
+
+    private LaunchSimulationTask subtask(long subtaskFrom, long subtaskTo, ChanceCalculator subtaskCalculator) {
+        return new LaunchSimulationTask(spaceportGroups, typeGroups, spaceportCount, resultSize,
+                iterations, options, subtaskCalculator, subtaskFrom, subtaskTo);
+    }
+
+    private long[] simulate() {
+        long[] successes = new long[resultSize];
+        int[] rolls = new int[(int) Math.min(ROLL_BATCH, to - from)];
+
+        long trial = from;
+        int request = (int) (from / iterations);
+        long requestEnd = (request + 1L) * iterations;
+        long requestSuccesses = 0;
+
+        while (trial < to) {
+            int count = (int) Math.min(rolls.length, to - trial);
+            if (count < rolls.length) {
+                rolls = new int[count];
+            }
+            calculator.rollForLaunchSuccess(rolls);
+
+            for (int roll : rolls) {
+                if (trial == requestEnd) {
+                    addSuccesses(successes, request, requestSuccesses);
+                    requestSuccesses = 0;
+                    request++;
+                    requestEnd += iterations;
+                }
+                if (options.isSuccessfulRoll(roll)) {
+                    requestSuccesses++;
+                }
+                trial++;
+            }
+        }
+        addSuccesses(successes, request, requestSuccesses);
+
+        return successes;
+    }
+
+    private void addSuccesses(long[] successes, int request, long count) {
+        successes[spaceportGroups[request]] += count;
+        successes[spaceportCount + typeGroups[request]] += count;
+    }
+}
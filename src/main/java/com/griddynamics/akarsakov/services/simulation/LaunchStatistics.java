@@ -0,0 +1,12 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+public record LaunchStatistics(long launches, long successes) {
+
+    public long failures() {
+        return launches - successes;
+    }
+
+    public double successRate() {
+        return launches == 0 ? 0.0 : (double) successes / launches;
+    }
+}
@@ -1,11 +1,49 @@
 package com.griddynamics.akarsakov.utils;
 
-import java.util.Random;
+import org.springframework.stereotype.Component;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
 public class ChanceCalculator {
+    private static final int ROLL_BOUND = 100;
+
+    // Unseeded calculators roll with ThreadLocalRandom, seeded ones own a generator and belong to a single worker
+    private final SplittableRandom random;
+
+    public ChanceCalculator() {
+        this(null);
+    }
+
+    private ChanceCalculator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public static ChanceCalculator seeded(long seed) {
+        return new ChanceCalculator(new SplittableRandom(seed));
+    }
+
+    // A seeded calculator hands every worker its own generator, so a run is reproducible for a given seed
+    // and split order; an unseeded calculator is already safe to share
+    public ChanceCalculator split() {
+        return random != null ? new ChanceCalculator(random.split()) : this;
+    }
 
     public int rollForLaunchSuccess() {
-        return new Random().nextInt(100);
+        return random != null ? random.nextInt(ROLL_BOUND) : ThreadLocalRandom.current().nextInt(ROLL_BOUND);
     }
 
+    public void rollForLaunchSuccess(int[] outcomes) {
+        if (random != null) {
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = random.nextInt(ROLL_BOUND);
+            }
+        } else {
+            ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = threadRandom.nextInt(ROLL_BOUND);
+            }
+        }
+    }
 }
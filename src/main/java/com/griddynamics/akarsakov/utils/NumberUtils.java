@@ -28,4 +28,48 @@ public final class NumberUtils {
             return false;
         }
     }
+
+    public static boolean isDecimal(String valueToCheck) {
+        if (valueToCheck == null) {
+            return false;
+        }
+        int length = valueToCheck.length();
+        int index = skipSign(valueToCheck, 0);
+
+        int digitsEnd = skipDigits(valueToCheck, index);
+        int digits = digitsEnd - index;
+        index = digitsEnd;
+        if (index < length && valueToCheck.charAt(index) == '.') {
+            digitsEnd = skipDigits(valueToCheck, index + 1);
+            digits += digitsEnd - index - 1;
+            index = digitsEnd;
+        }
+        if (digits == 0) {
+            return false;
+        }
+
+        if (index < length && (valueToCheck.charAt(index) == 'e' || valueToCheck.charAt(index) == 'E')) {
+            int exponentStart = skipSign(valueToCheck, index + 1);
+            index = skipDigits(valueToCheck, exponentStart);
+            int exponentDigits = index - exponentStart;
+            if (exponentDigits == 0 || exponentDigits > 9) {
+                return false;
+            }
+        }
+        return index == length;
+    }
+
+    private static int skipSign(String value, int index) {
+        if (index < value.length() && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+            return index + 1;
+        }
+        return index;
+    }
+
+    private static int skipDigits(String value, int index) {
+        while (index < value.length() && value.charAt(index) >= '0' && value.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
 }
@@ -0,0 +1,129 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class NumericOperand {
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final int MAX_EXACT_DOUBLE_LENGTH = 32;
+
+    private final BigDecimal decimal;
+    private final boolean integral;
+    private final boolean withinLongRange;
+    private final long floor;
+    private final boolean exactDouble;
+    private final double doubleValue;
+
+    private NumericOperand(String text, BigDecimal decimal) {
+        this.decimal = decimal;
+
+        long floorValue = 0;
+        boolean fitsLong;
+        try {
+            floorValue = decimal.setScale(0, RoundingMode.FLOOR).longValueExact();
+            fitsLong = true;
+        } catch (ArithmeticException e) {
+            fitsLong = false;
+        }
+        this.withinLongRange = fitsLong;
+        this.floor = floorValue;
+        this.integral = fitsLong && decimal.compareTo(BigDecimal.valueOf(floorValue)) == 0;
+
+        this.exactDouble = isExactlyComparableAsDouble(text);
+        this.doubleValue = decimal.doubleValue();
+    }
+
+    public static NumericOperand parse(String value) {
+        if (!NumberUtils.isDecimal(value)) {
+            throw new IllegalArgumentException("Value '%s' is not a number".formatted(value));
+        }
+        return new NumericOperand(value, new BigDecimal(value));
+    }
+
+    public BigDecimal decimalValue() {
+        return decimal;
+    }
+
+    /**
+     * Compares a parameter value with this operand, returning a negative number, zero or a positive number
+     * when the value is lesser than, equal to or greater than the operand.
+     */
+    public int compareTo(String value) {
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index = 1;
+        }
+
+        long accumulator = 0;
+        int digits = 0;
+        while (index < length && digits <= MAX_LONG_DIGITS) {
+            char c = value.charAt(index);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            accumulator = accumulator * 10 + (c - '0');
+            digits++;
+            index++;
+        }
+        if (index == length && digits > 0 && digits <= MAX_LONG_DIGITS) {
+            return compareLong(negative ? -accumulator : accumulator);
+        }
+
+        if (!NumberUtils.isDecimal(value)) {
+            throw new IllegalArgumentException("Value '%s' is not a number".formatted(value));
+        }
+        if (exactDouble && isExactlyComparableAsDouble(value)) {
+            double parsed = Double.parseDouble(value);
+            return parsed < doubleValue ? -1 : (parsed > doubleValue ? 1 : 0);
+        }
+        return new BigDecimal(value).compareTo(decimal);
+    }
+
+    public int compareTo(Number value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return compareLong(value.longValue());
+        }
+        if (value instanceof Decimal128 decimal128) {
+            return decimal128.bigDecimalValue().compareTo(decimal);
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal.compareTo(decimal);
+        }
+        return new BigDecimal(value.toString()).compareTo(decimal);
+    }
+
+    private int compareLong(long value) {
+        if (integral) {
+            return Long.compare(value, floor);
+        }
+        if (withinLongRange) {
+            return value <= floor ? -1 : 1;
+        }
+        return decimal.signum() > 0 ? -1 : 1;
+    }
+
+    // Decimals with at most 15 significant digits and no exponent survive a round trip through double,
+    // so comparing their double values gives the same order as comparing them as BigDecimal
+    private static boolean isExactlyComparableAsDouble(String value) {
+        if (value.length() > MAX_EXACT_DOUBLE_LENGTH) {
+            return false;
+        }
+        int significantDigits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == 'e' || c == 'E') {
+                return false;
+            }
+            if (c >= '1' && c <= '9' || c == '0' && significantDigits > 0) {
+                significantDigits++;
+            }
+        }
+        return significantDigits <= MAX_EXACT_DOUBLE_DIGITS;
+    }
+}
@@ -0,0 +1,89 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+public final class ParameterValueParser {
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private ParameterValueParser() {}
+
+    /**
+     * Converts a raw launch parameter into a value with a native BSON type: {@link Long} or {@link Decimal128}
+     * for numbers and percentages, {@link Boolean} for flags and {@link Instant} for ISO-8601 date-times.
+     * Date-times without an offset are treated as UTC. Returns {@code null} for plain text.
+     */
+    public static Object parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.valueOf(value);
+        }
+
+        String number = value.endsWith("%") ? value.substring(0, value.length() - 1) : value;
+        if (NumberUtils.isDecimal(number)) {
+            return parseNumber(number);
+        }
+        if (looksLikeDate(value)) {
+            return parseInstant(value);
+        }
+        return null;
+    }
+
+    public static Object normalize(Object typedValue) {
+        if (typedValue instanceof Date date) {
+            return date.toInstant();
+        }
+        return typedValue;
+    }
+
+    private static Object parseNumber(String number) {
+        if (isPlainInteger(number)) {
+            return Long.parseLong(number);
+        }
+        try {
+            return new Decimal128(new BigDecimal(number));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isPlainInteger(String number) {
+        int start = number.charAt(0) == '-' || number.charAt(0) == '+' ? 1 : 0;
+        int digits = number.length() - start;
+        if (digits == 0 || digits > MAX_LONG_DIGITS) {
+            return false;
+        }
+        for (int i = start; i < number.length(); i++) {
+            if (number.charAt(i) < '0' || number.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean looksLikeDate(String value) {
+        return value.length() >= 16 && value.charAt(4) == '-' && value.charAt(7) == '-' && value.charAt(10) == 'T';
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // no offset, falls back to a local date-time
+        }
+        try {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
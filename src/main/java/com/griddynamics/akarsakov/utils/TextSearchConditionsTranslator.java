@@ -1,29 +1,33 @@
 package com.griddynamics.akarsakov.utils;
 
 import com.griddynamics.akarsakov.services.search.SearchCondition;
-import org.springframework.data.util.Pair;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
 
 public final class TextSearchConditionsTranslator {
 
     private TextSearchConditionsTranslator() {}
 
-    public static Pair<String, String> buildSearchRegex(SearchCondition condition) {
-        StringBuilder searchRegex = new StringBuilder();
-        String options = "";
-
-        switch (condition.condition()) {
-            case NOT_EQUALS -> {
-                searchRegex.append("^(?!").append(condition.value()).append("$)");
-                options = "s";
-            }
-            case EQUALS -> searchRegex.append("^").append(condition.value()).append("$");
-            case LIKE -> {
-                searchRegex.append(".*").append(condition.value()).append(".*");
-                options = "i";
-            }
-        }
-
-        return Pair.of(searchRegex.toString(), options);
+    public static Document buildSearchFragment(SearchCondition condition) {
+        Object value = condition.value();
+
+        return switch (condition.condition()) {
+            case NOT_EQUALS -> value instanceof Collection<?> values ?
+                    new Document("$exists", true).append("$nin", toStrings(values)) :
+                    new Document("$exists", true).append("$ne", String.valueOf(value));
+            case EQUALS -> value instanceof Collection<?> values ?
+                    new Document("$in", toStrings(values)) :
+                    new Document("$eq", String.valueOf(value));
+            case LIKE -> new Document("$regex", Pattern.quote(String.valueOf(value))).append("$options", "i");
+            default -> new Document("$exists", true);
+        };
+    }
+
+    public static List<String> toStrings(Collection<?> values) {
+        return values.stream().map(String::valueOf).toList();
     }
 
 }
@@ -0,0 +1,47 @@
+package com.griddynamics.akarsakov.utils;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class Trigrams {
+    public static final int GRAM_LENGTH = 3;
+
+    private Trigrams() {}
+
+    public static Set<String> of(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        addTo(grams, value);
+        return grams;
+    }
+
+    public static Set<String> of(Collection<String> values) {
+        Set<String> grams = new LinkedHashSet<>();
+        values.forEach(value -> addTo(grams, value));
+        return grams;
+    }
+
+    public static boolean isIndexable(String value) {
+        return value != null && value.length() >= GRAM_LENGTH;
+    }
+
+    private static void addTo(Set<String> grams, String value) {
+        if (!isIndexable(value)) {
+            return;
+        }
+        String normalized = normalize(value);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    // Char-by-char folding keeps the length and position of every character, unlike String.toLowerCase,
+    // so the grams of a substring are always a subset of the grams of the whole value
+    private static String normalize(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return new String(chars);
+    }
+}
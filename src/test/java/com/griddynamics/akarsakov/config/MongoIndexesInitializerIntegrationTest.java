@@ -0,0 +1,58 @@
+package com.griddynamics.akarsakov.config;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+@Import(MongoIndexesInitializer.class)
+class MongoIndexesInitializerIntegrationTest {
+    @Autowired
+    private MongoIndexesInitializer initializer;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void ensureIndexes() {
+        initializer.ensureIndexes();
+
+        List<String> rocketIndexes = mongoTemplate.indexOps(Rocket.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .toList();
+        assertTrue(rocketIndexes.containsAll(List.of("type", "missionName", "spaceport", "parameters",
+                "typedParameters", "satellites.name", "satellites.assignment", "searchGrams.missionName",
+                "searchGrams.satelliteName", "searchGrams.satelliteAssignment")));
+
+        List<String> spaceportIndexes = mongoTemplate.indexOps(Spaceport.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .toList();
+        assertTrue(spaceportIndexes.contains("name_ci"));
+    }
+
+    @Test
+    void ensureIndexes_isIdempotent() {
+        initializer.ensureIndexes();
+
+        assertDoesNotThrow(initializer::ensureIndexes);
+    }
+}
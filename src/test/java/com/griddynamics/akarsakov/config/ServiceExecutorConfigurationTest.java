@@ -0,0 +1,33 @@
+package com.griddynamics.akarsakov.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class ServiceExecutorConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(ServiceExecutorConfiguration.class)
+            .withPropertyValues("rockets.executor.mode=platform", "spring.task.execution.pool.core-size=3");
+
+    @Test
+    void applicationTaskExecutorIsKeptNextToServiceExecutor() {
+        contextRunner.run(context -> {
+            assertInstanceOf(ExecutorService.class, context.getBean("serviceExecutor"));
+
+            ThreadPoolTaskExecutor taskExecutor = context.getBean(
+                    TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, ThreadPoolTaskExecutor.class);
+            assertEquals(3, taskExecutor.getCorePoolSize());
+            assertSame(taskExecutor, context.getBean("taskExecutor"));
+        });
+    }
+}
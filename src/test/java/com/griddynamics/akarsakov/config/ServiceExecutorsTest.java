@@ -0,0 +1,42 @@
+package com.griddynamics.akarsakov.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class ServiceExecutorsTest {
+
+    @Test
+    void create_platform() throws Exception {
+        ExecutorService executor = ServiceExecutors.create(ServiceExecutorMode.PLATFORM, 2);
+        try {
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+            assertTrue(threadName.startsWith("rocket-service-"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void create_virtualRunsTasksOnEveryRuntime() throws Exception {
+        ExecutorService executor = ServiceExecutors.create(ServiceExecutorMode.VIRTUAL, 2);
+        try {
+            assertEquals(42, executor.submit(() -> 42).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mode_ignoresCase() {
+        assertEquals(ServiceExecutorMode.PLATFORM, ServiceExecutorMode.of("platform"));
+        assertEquals(ServiceExecutorMode.VIRTUAL, ServiceExecutorMode.of(" Virtual "));
+        assertThrows(IllegalArgumentException.class, () -> ServiceExecutorMode.of("carrier"));
+    }
+}
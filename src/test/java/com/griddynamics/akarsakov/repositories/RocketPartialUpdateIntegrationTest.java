@@ -0,0 +1,149 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+@Import(RocketSearchGramsListener.class)
+class RocketPartialUpdateIntegrationTest {
+    @Autowired
+    private RocketRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Rocket rocket;
+    private Satellite voyager;
+
+    @BeforeEach
+    void initDatabase() {
+        rocket = new Rocket(UUID.randomUUID(), "heavy");
+        rocket.setMissionName("Deep space");
+        rocket.addParameter("delta-V", "1700");
+        rocket.addParameter("Fuel", "50%");
+        voyager = new Satellite(UUID.randomUUID());
+        voyager.setName("Voyager");
+        rocket.addSatellite(voyager);
+        repository.save(rocket);
+    }
+
+    @AfterEach
+    void cleanupDatabase() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void saveChanges_parameters() {
+        Rocket loaded = repository.findById(rocket.getId()).orElseThrow();
+        assertTrue(loaded.getChanges().isEmpty());
+
+        loaded.addParameter("Fuel", "100%");
+        loaded.removeParameter("delta-V");
+
+        assertTrue(repository.saveChanges(loaded));
+        assertTrue(loaded.getChanges().isEmpty());
+
+        Rocket reloaded = repository.findById(rocket.getId()).orElseThrow();
+        assertEquals(Map.of("Fuel", "100%"), reloaded.getParameters());
+        assertEquals(Map.of("Fuel", 100L), reloaded.getTypedParameters());
+        assertEquals(Set.of(voyager), reloaded.getSatellites());
+    }
+
+    @Test
+    void saveChanges_satellitesAndMissionNameKeepSearchGramsInSync() {
+        Rocket loaded = repository.findById(rocket.getId()).orElseThrow();
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        loaded.addSatellite(juno);
+        loaded.setMissionName("Jupiter orbit");
+
+        assertTrue(repository.saveChanges(loaded));
+
+        assertEquals(Set.of(voyager, juno), repository.findById(rocket.getId()).orElseThrow().getSatellites());
+        assertEquals(loaded, firstByLike("missionName", "jupiter"));
+        assertEquals(loaded, firstByLike("satellite.name", "Juno"));
+
+        loaded.removeSatellite(voyager);
+        assertTrue(repository.saveChanges(loaded));
+
+        assertEquals(Set.of(juno), repository.findById(rocket.getId()).orElseThrow().getSatellites());
+        assertNull(firstByLike("satellite.name", "Voyager"));
+    }
+
+    @Test
+    void saveChanges_unknownRocket() {
+        Rocket unknown = new Rocket(UUID.randomUUID(), "light");
+        unknown.addParameter("Fuel", "100%");
+
+        assertFalse(repository.saveChanges(unknown));
+        assertFalse(unknown.getChanges().isEmpty());
+    }
+
+    @Test
+    void saveAllChanges() {
+        Rocket loaded = repository.findById(rocket.getId()).orElseThrow();
+        Rocket unchanged = repository.findById(rocket.getId()).orElseThrow();
+        loaded.addParameter("Fuel", "75%");
+
+        BulkUpdateReport report = repository.saveAllChanges(List.of(unchanged, loaded));
+
+        assertEquals(1, report.matchedCount());
+        assertTrue(report.errors().isEmpty());
+        assertTrue(loaded.getChanges().isEmpty());
+
+        Document raw = mongoTemplate.findById(rocket.getId(), Document.class,
+                mongoTemplate.getCollectionName(Rocket.class));
+        assertEquals("75%", raw.get("parameters", Document.class).get("Fuel"));
+    }
+
+    @Test
+    void saveAllChanges_unknownRocketIsFailed() {
+        Rocket loaded = repository.findById(rocket.getId()).orElseThrow();
+        loaded.addParameter("Fuel", "60%");
+        Rocket unknown = new Rocket(UUID.randomUUID(), "light");
+        unknown.addParameter("Fuel", "10%");
+
+        BulkUpdateReport report = repository.saveAllChanges(List.of(loaded, unknown));
+
+        assertEquals(1, report.matchedCount());
+        assertFalse(report.isFailed(0));
+        assertTrue(report.isFailed(1));
+        assertTrue(loaded.getChanges().isEmpty());
+        assertFalse(unknown.getChanges().isEmpty());
+    }
+
+    private Rocket firstByLike(String attributeName, String value) {
+        SearchPlan plan = SearchPlan.compile(
+                List.of(new SearchCondition(attributeName, SearchCondition.Condition.LIKE, value)),
+                new SearchPlanOptions(true));
+        return repository.findFirstByFilter(plan.filter()).orElse(null);
+    }
+}
@@ -2,21 +2,29 @@ package com.griddynamics.akarsakov.repositories;
 
 import com.griddynamics.akarsakov.TestingSpringBootApplication;
 import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.bson.Document;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static com.griddynamics.akarsakov.utils.TextSearchConditionsTranslator.buildSearchRegex;
 
 @Tag("integration")
 @DataMongoTest
@@ -28,6 +36,7 @@ class RocketRepositoryIntegrationTest {
     private RocketRepository repository;
 
     private static List<Rocket> rockets;
+    private static Spaceport spaceport;
 
     @BeforeAll
     static void initDatabase(@Autowired MongoTemplate mongoTemplate) {
@@ -39,6 +48,14 @@ class RocketRepositoryIntegrationTest {
         rockets.get(0).setMissionName("GPS grid update");
         rockets.get(1).setMissionName("L1 telescope deploy");
         rockets.get(2).setMissionName("Jupiter L2 communication probe deploy");
+        rockets.get(1).addParameter("delta-V", "1700");
+        rockets.get(2).addParameter("delta-V", "4500");
+
+        spaceport = new Spaceport(UUID.randomUUID(), -80.6, 28.6);
+        spaceport.setName("Cape Canaveral");
+        mongoTemplate.save(spaceport);
+        rockets.get(1).setSpaceport(spaceport);
+        rockets.get(2).setSpaceport(spaceport);
 
         rockets.forEach(mongoTemplate::save);
     }
@@ -46,52 +63,242 @@ class RocketRepositoryIntegrationTest {
     @AfterAll
     static void cleanupDatabase(@Autowired MongoTemplate mongoTemplate) {
         rockets.forEach(mongoTemplate::remove);
+        mongoTemplate.remove(spaceport);
+    }
+
+    @Test
+    void findFirstByFilter() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("type", SearchCondition.Condition.LIKE, "heav"),
+                new SearchCondition("delta-V", SearchCondition.Condition.GREATER_THAN, 2000)
+        );
+
+        assertEquals(
+                rockets.get(2),
+                repository.findFirstByFilter(SearchPlan.compile(conditions).filter()).orElse(null)
+        );
+    }
+
+    @Test
+    void findFirstByFilter_nothingFound() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.LESSER_THAN, 1000)
+        );
+
+        assertTrue(repository.findFirstByFilter(SearchPlan.compile(conditions).filter()).isEmpty());
+    }
+
+    @Test
+    void findFirstByFilters() {
+        List<Document> filters = List.of(
+                SearchPlan.compile(List.of(
+                        new SearchCondition("delta-V", SearchCondition.Condition.GREATER_THAN, 2000))).filter(),
+                SearchPlan.compile(List.of(
+                        new SearchCondition("type", SearchCondition.Condition.EQUALS, "missing"))).filter(),
+                SearchPlan.compile(List.of(
+                        new SearchCondition("missionName", SearchCondition.Condition.LIKE, "gps"))).filter(),
+                SearchPlan.compile(List.of(
+                        new SearchCondition("spaceport", SearchCondition.Condition.EQUALS, spaceport))).filter()
+        );
+
+        assertEquals(
+                List.of(Optional.of(rockets.get(2)), Optional.empty(), Optional.of(rockets.get(0)),
+                        Optional.of(rockets.get(1))),
+                repository.findFirstByFilters(filters)
+        );
+    }
+
+    @Test
+    void findFirstByFilters_emptyFilters() {
+        Document delta = SearchPlan.compile(List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.GREATER_THAN, 2000))).filter();
+
+        List<Optional<Rocket>> found = repository.findFirstByFilters(List.of(new Document(), delta, new Document()));
+
+        assertEquals(List.of(Optional.of(rockets.get(0)), Optional.of(rockets.get(2)), Optional.of(rockets.get(0))),
+                found);
+        assertNotSame(found.get(0).orElseThrow(), found.get(2).orElseThrow());
+    }
+
+    @Test
+    void findFirstByFilters_mapsRocket() {
+        Document filter = SearchPlan.compile(List.of(
+                new SearchCondition("type", SearchCondition.Condition.EQUALS, "heavy"))).filter();
+
+        Rocket found = repository.findFirstByFilters(List.of(filter)).get(0).orElseThrow();
+
+        assertEquals("L1 telescope deploy", found.getMissionName());
+        assertEquals("1700", found.getParameters().get("delta-V"));
+        assertEquals(spaceport.getId(), found.getSpaceportId());
     }
 
     @Test
-    void findByIdNotIn() {
+    void findByFilter() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.NOT_EQUALS, "4500")
+        );
+
         assertIterableEquals(
                 List.of(rockets.get(1)),
-                repository.findByIdNotIn(List.of(rockets.get(0).getId(), rockets.get(2).getId()))
+                repository.findByFilter(SearchPlan.compile(conditions).filter())
         );
     }
 
     @Test
-    void findByTypeRegex() {
-        SearchCondition condition = new SearchCondition("type", SearchCondition.Condition.LIKE, "heav");
+    void findFirstByFilter_rocketIdNotEquals() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", SearchCondition.Condition.NOT_EQUALS, rockets.get(1).getId()),
+                new SearchCondition("delta-V", SearchCondition.Condition.GREATER_OR_EQUALS_THAN, 1700)
+        );
 
-        assertIterableEquals(
-                List.of(rockets.get(1), rockets.get(2)),
-                repository.findByTypeRegex(buildSearchRegex(condition))
+        assertEquals(
+                rockets.get(2),
+                repository.findFirstByFilter(SearchPlan.compile(conditions).filter()).orElse(null)
         );
     }
 
     @Test
-    void findByMissionNameRegex() {
-        SearchCondition condition = new SearchCondition("missionName",
-                SearchCondition.Condition.EQUALS,
-                "Jupiter L2 communication probe deploy");
+    void findFirstByFilter_parameterConditions() {
+        assertEquals(Optional.of(rockets.get(1)), findFirst(
+                new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, 1700)));
+        assertEquals(Optional.of(rockets.get(2)), findFirst(
+                new SearchCondition("delta-V", SearchCondition.Condition.NOT_EQUALS, 1700)));
+        assertEquals(Optional.empty(), findFirst(
+                new SearchCondition("delta-V", SearchCondition.Condition.LESSER_OR_EQUALS_THAN, 1699.999)));
+        assertEquals(Optional.of(rockets.get(2)), findFirst(
+                new SearchCondition("delta-V", SearchCondition.Condition.GREATER_OR_EQUALS_THAN, 1700.0001)));
+        assertEquals(Optional.empty(), findFirst(
+                new SearchCondition("attrName", SearchCondition.Condition.NOT_EQUALS, "some value")));
+    }
 
-        assertIterableEquals(
-                List.of(rockets.get(2)),
-                repository.findByMissionNameRegex(buildSearchRegex(condition))
+    @Test
+    void findFirstByFilter_satelliteConditions() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "medium");
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        juno.setAssignment("research of far space magnetic fields");
+        rocket.addSatellite(juno);
+        repository.save(rocket);
+        try {
+            assertEquals(Optional.of(rocket), findFirst(
+                    new SearchCondition("satellite.name", SearchCondition.Condition.EQUALS, "Juno")));
+            assertEquals(Optional.of(rocket), findFirst(
+                    new SearchCondition("satellite.name", SearchCondition.Condition.NOT_EQUALS, "Voyager 2")));
+            assertEquals(Optional.of(rocket), findFirst(
+                    new SearchCondition("satellite.assignment", SearchCondition.Condition.LIKE, "far space")));
+            assertEquals(Optional.empty(), findFirst(
+                    new SearchCondition("satellite.assignment", SearchCondition.Condition.EQUALS, "navigation probe")));
+            assertEquals(Optional.empty(), findFirst(
+                    new SearchCondition("satellite.name", SearchCondition.Condition.LESSER_THAN, 214)));
+        } finally {
+            repository.delete(rocket);
+        }
+    }
+
+    // A stored value that is not a number never satisfies a numeric condition
+    @Test
+    void findFirstByFilter_numericConditionOnNonNumericParameter() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "medium");
+        rocket.addParameter("delta-V", "unknown");
+        repository.save(rocket);
+        try {
+            assertEquals(Optional.empty(), findFirst(
+                    new SearchCondition("id", SearchCondition.Condition.EQUALS, rocket.getId()),
+                    new SearchCondition("delta-V", SearchCondition.Condition.LESSER_THAN, 1000)));
+            assertEquals(Optional.of(rocket), findFirst(
+                    new SearchCondition("id", SearchCondition.Condition.EQUALS, rocket.getId()),
+                    new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, "unknown")));
+        } finally {
+            repository.delete(rocket);
+        }
+    }
+
+    private Optional<Rocket> findFirst(SearchCondition... conditions) {
+        return repository.findFirstByFilter(SearchPlan.compile(List.of(conditions)).filter());
+    }
+
+    @Test
+    void sample() {
+        List<Rocket> sample = repository.sample(rockets.size() + 1);
+
+        assertEquals(rockets.size(), sample.size());
+        assertTrue(rockets.containsAll(sample));
+        assertEquals(1, repository.sample(1).size());
+    }
+
+    @Test
+    void streamByFilter() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("type", SearchCondition.Condition.LIKE, "heav")
         );
+
+        try (Stream<Rocket> found = repository.streamByFilter(SearchPlan.compile(conditions).filter(), 1)) {
+            assertIterableEquals(List.of(rockets.get(1), rockets.get(2)), found.toList());
+        }
+    }
+
+    @Test
+    void findById_spaceportIsLazy() {
+        Rocket found = repository.findById(rockets.get(1).getId()).orElseThrow();
+
+        assertInstanceOf(LazyLoadingProxy.class, found.getSpaceport());
+        assertEquals(spaceport.getId(), found.getSpaceportId());
+        assertEquals(spaceport, found.getSpaceport());
     }
 
     @Test
-    void findByTypeAndMissionNameRegexes() {
-        SearchCondition missionNameCondition = new SearchCondition("missionName",
-                SearchCondition.Condition.LIKE,
-                "deploy");
-        SearchCondition typeCondition = new SearchCondition("type",
-                SearchCondition.Condition.NOT_EQUALS,
-                "heavy");
+    void findByFilter_spaceportReference() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("spaceport", SearchCondition.Condition.EQUALS, spaceport.getId())
+        );
 
         assertIterableEquals(
-                List.of(rockets.get(2)),
-                repository.findByTypeAndMissionNameRegexes(buildSearchRegex(typeCondition),
-                        buildSearchRegex(missionNameCondition))
+                List.of(rockets.get(1), rockets.get(2)),
+                repository.findByFilter(SearchPlan.compile(conditions).filter())
         );
     }
 
+    @Test
+    void streamByFilterWithSpaceports() {
+        try (Stream<Rocket> found = repository.streamByFilterWithSpaceports(new Document(), 2)) {
+            List<Rocket> foundRockets = found.toList();
+
+            assertIterableEquals(rockets, foundRockets);
+            assertNull(foundRockets.get(0).getSpaceport());
+            for (Rocket rocket : foundRockets.subList(1, 3)) {
+                assertFalse(rocket.getSpaceport() instanceof LazyLoadingProxy);
+                assertEquals(spaceport, rocket.getSpaceport());
+            }
+        }
+    }
+
+    @Test
+    void bulkUpdate() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "medium");
+        rocket.addParameter("delta-V", "3000");
+        rocket.addParameter("Fuel", "50%");
+        repository.save(rocket);
+        try {
+            BulkUpdateReport report = repository.bulkUpdate(List.of(
+                    Pair.of(rocket.getId(), new Update()
+                            .set("spaceport", spaceport)
+                            .set("parameters.Fuel", "100%")
+                            .set("typedParameters.Fuel", 100L)),
+                    Pair.of(UUID.randomUUID(), new Update().set("parameters.Fuel", "100%"))
+            ));
+
+            assertEquals(1, report.matchedCount());
+            assertEquals(1, report.modifiedCount());
+            assertFalse(report.isFailed(0));
+            assertTrue(report.isFailed(1));
+
+            Rocket updated = repository.findById(rocket.getId()).orElseThrow();
+            assertEquals("100%", updated.getParameters().get("Fuel"));
+            assertEquals("3000", updated.getParameters().get("delta-V"));
+            assertEquals(spaceport.getId(), updated.getSpaceportId());
+        } finally {
+            repository.delete(rocket);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+@Import(RocketSearchGramsListener.class)
+class RocketSearchGramsListenerIntegrationTest {
+    private static final SearchPlanOptions TRIGRAM_INDEX = new SearchPlanOptions(true);
+
+    @Autowired
+    private RocketRepository repository;
+
+    @Autowired
+    private RocketSearchGramsListener listener;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanupDatabase() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void save_storesSearchGrams() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+        rocket.setMissionName("GPS grid");
+        Satellite satellite = new Satellite(UUID.randomUUID());
+        satellite.setName("Navstar");
+        satellite.setAssignment("navigation");
+        rocket.addSatellite(satellite);
+        repository.save(rocket);
+
+        Document grams = rawDocument(rocket).get(RocketSearchGramsListener.FIELD, Document.class);
+
+        assertEquals(List.of("gps", "ps ", "s g", " gr", "gri", "rid"),
+                grams.getList(RocketSearchGramsListener.MISSION_NAME, String.class));
+        assertTrue(grams.getList(RocketSearchGramsListener.SATELLITE_NAME, String.class).contains("sta"));
+        assertTrue(grams.getList(RocketSearchGramsListener.SATELLITE_ASSIGNMENT, String.class).contains("gat"));
+    }
+
+    @Test
+    void findFirstByFilter_trigramPlan() {
+        Rocket gps = new Rocket(UUID.randomUUID(), "light");
+        gps.setMissionName("GPS grid update");
+        Rocket telescope = new Rocket(UUID.randomUUID(), "heavy");
+        telescope.setMissionName("L1 telescope deploy");
+        repository.saveAll(List.of(gps, telescope));
+
+        SearchPlan plan = SearchPlan.compile(
+                List.of(new SearchCondition("missionName", SearchCondition.Condition.LIKE, "scope DEP")),
+                TRIGRAM_INDEX);
+
+        assertEquals(telescope, repository.findFirstByFilter(plan.filter()).orElse(null));
+    }
+
+    @Test
+    void backfillSearchGrams() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "light");
+        rocket.setMissionName("Legacy mission");
+        repository.save(rocket);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rocket.getId())),
+                new Update().unset(RocketSearchGramsListener.FIELD),
+                Rocket.class);
+        assertFalse(rawDocument(rocket).containsKey(RocketSearchGramsListener.FIELD));
+
+        listener.backfillSearchGrams();
+
+        SearchPlan plan = SearchPlan.compile(
+                List.of(new SearchCondition("missionName", SearchCondition.Condition.LIKE, "legacy")),
+                TRIGRAM_INDEX);
+        assertEquals(rocket, repository.findFirstByFilter(plan.filter()).orElse(null));
+    }
+
+    private Document rawDocument(Rocket rocket) {
+        return mongoTemplate.findById(rocket.getId(), Document.class, mongoTemplate.getCollectionName(Rocket.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import com.griddynamics.akarsakov.services.search.SelectivityEstimator;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.GREATER_THAN;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+@Import(RocketTypedParametersBackfill.class)
+class RocketTypedParametersBackfillIntegrationTest {
+    private static final List<SearchCondition> FAST_ROCKETS =
+            List.of(new SearchCondition("delta-V", GREATER_THAN, 4000));
+
+    @Autowired
+    private RocketTypedParametersBackfill backfill;
+
+    @Autowired
+    private RocketRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanupDatabase() {
+        repository.deleteAll();
+    }
+
+    // A rocket document as it was stored before typed parameters were kept
+    private UUID insertUntypedRocket() {
+        UUID id = UUID.randomUUID();
+        mongoTemplate.insert(new Document("_id", id)
+                        .append("type", "heavy")
+                        .append("parameters", new Document("delta-V", "4500").append("purpose", "Jupiter")),
+                mongoTemplate.getCollectionName(Rocket.class));
+        return id;
+    }
+
+    @Test
+    void findById_parsesTypedParametersFromRawValues() {
+        UUID id = insertUntypedRocket();
+
+        Rocket rocket = repository.findById(id).orElseThrow();
+
+        assertEquals(4500L, rocket.getTypedParameter("delta-V"));
+        assertNull(rocket.getTypedParameter("purpose"));
+        assertTrue(SearchPlan.compile(FAST_ROCKETS).matches(rocket));
+    }
+
+    @Test
+    void findById_readsStoredDatesAsInstants() {
+        Rocket saved = new Rocket(UUID.randomUUID(), "light");
+        saved.addParameter("Launch date", "2022-03-01T12:00:00Z");
+        repository.save(saved);
+
+        Rocket rocket = repository.findById(saved.getId()).orElseThrow();
+
+        assertEquals(Instant.parse("2022-03-01T12:00:00Z"), rocket.getTypedParameter("Launch date"));
+        assertEquals(saved.getTypedParameters(), rocket.copy().getTypedParameters());
+    }
+
+    @Test
+    void backfillTypedParameters_makesStoredRocketsRangeQueryable() {
+        UUID id = insertUntypedRocket();
+        SearchPlan plan = SearchPlan.compile(FAST_ROCKETS);
+        assertEquals(Optional.empty(), repository.findFirstByFilter(plan.filter()));
+
+        backfill.backfillTypedParameters();
+
+        assertEquals(id, repository.findFirstByFilter(plan.filter()).map(Rocket::getId).orElse(null));
+        Document stored = mongoTemplate.findOne(Query.query(Criteria.where("_id").is(id)), Document.class,
+                mongoTemplate.getCollectionName(Rocket.class));
+        assertNotNull(stored);
+        assertEquals(4500L, stored.get(RocketTypedParametersBackfill.FIELD, Document.class).get("delta-V"));
+    }
+
+    @Test
+    void rangeConditionsWithoutTypedParameters_checkRawValues() {
+        UUID id = insertUntypedRocket();
+        SearchPlan plan = SearchPlan.compile(FAST_ROCKETS, new SearchPlanOptions(false, false, SelectivityEstimator.HEURISTIC));
+
+        assertTrue(plan.hasResidualConditions());
+        Rocket candidate = repository.findByFilter(plan.filter()).get(0);
+        assertEquals(id, candidate.getId());
+        assertTrue(plan.matchesResidual(candidate));
+    }
+}
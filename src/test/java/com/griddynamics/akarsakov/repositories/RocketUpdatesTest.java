@@ -0,0 +1,146 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class RocketUpdatesTest {
+
+    private Rocket rocket;
+    private Satellite voyager;
+
+    @BeforeEach
+    void initRocket() {
+        rocket = new Rocket(UUID.randomUUID(), "heavy");
+        rocket.setMissionName("Deep space");
+        rocket.addParameter("delta-V", "1700");
+        rocket.addParameter("Fuel", "50%");
+        voyager = new Satellite(UUID.randomUUID());
+        voyager.setName("Voyager");
+        rocket.addSatellite(voyager);
+        rocket.clearChanges();
+    }
+
+    @Test
+    void changesOf_cleanRocket() {
+        assertTrue(rocket.getChanges().isEmpty());
+        assertEquals(new Document(), RocketUpdates.changesOf(rocket).getUpdateObject());
+    }
+
+    @Test
+    void changesOf_singleParameter() {
+        rocket.addParameter("Fuel", "100%");
+
+        assertEquals(new Document("$set", new Document("parameters.Fuel", "100%")
+                        .append("typedParameters.Fuel", 100L)),
+                RocketUpdates.changesOf(rocket).getUpdateObject());
+    }
+
+    @Test
+    void changesOf_removedParameterAndUntypedValue() {
+        rocket.removeParameter("delta-V");
+        rocket.addParameter("Fuel", "liquid");
+
+        Document update = RocketUpdates.changesOf(rocket).getUpdateObject();
+
+        assertEquals(new Document("parameters.Fuel", "liquid"), update.get("$set"));
+        assertEquals(Set.of("parameters.delta-V", "typedParameters.delta-V", "typedParameters.Fuel"),
+                update.get("$unset", Document.class).keySet());
+    }
+
+    @Test
+    void changesOf_clearedParametersAreWrittenWhole() {
+        rocket.setParameters(null);
+        rocket.addParameter("Fuel", "10%");
+
+        Document set = RocketUpdates.changesOf(rocket).getUpdateObject().get("$set", Document.class);
+
+        assertEquals(Map.of("Fuel", "10%"), set.get("parameters"));
+        assertEquals(Map.of("Fuel", 10L), set.get("typedParameters"));
+    }
+
+    @Test
+    void changesOf_dottedParameterNameWritesMapsWhole() {
+        rocket.addParameter("stage.count", "2");
+
+        Document set = RocketUpdates.changesOf(rocket).getUpdateObject().get("$set", Document.class);
+
+        assertEquals(Set.of("parameters", "typedParameters"), set.keySet());
+    }
+
+    @Test
+    void changesOf_addedSatellite() {
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        rocket.addSatellite(juno);
+
+        Document update = RocketUpdates.changesOf(rocket).getUpdateObject();
+
+        assertEquals(Set.of("satellites"), update.get("$addToSet", Document.class).keySet());
+        assertFalse(update.containsKey("$pull"));
+        assertTrue(update.get("$set", Document.class).containsKey("searchGrams.satelliteName"));
+        assertTrue(update.get("$set", Document.class).containsKey("searchGrams.satelliteAssignment"));
+    }
+
+    @Test
+    void changesOf_removedSatellite() {
+        rocket.removeSatellite(voyager);
+
+        assertEquals(new Document("satellites", new Document("_id", new Document("$in", List.of(voyager.getId())))),
+                RocketUpdates.changesOf(rocket).getUpdateObject().get("$pull"));
+    }
+
+    @Test
+    void changesOf_addedAndRemovedSatellitesRewriteArray() {
+        Satellite juno = new Satellite(UUID.randomUUID());
+        rocket.addSatellite(juno);
+        rocket.removeSatellite(voyager);
+
+        Document update = RocketUpdates.changesOf(rocket).getUpdateObject();
+
+        assertEquals(Set.of(juno), update.get("$set", Document.class).get("satellites"));
+        assertFalse(update.containsKey("$pull"));
+        assertFalse(update.containsKey("$addToSet"));
+    }
+
+    @Test
+    void changesOf_satelliteAddedAndRemovedAgainIsNoChange() {
+        Satellite juno = new Satellite(UUID.randomUUID());
+        rocket.addSatellite(juno);
+        rocket.removeSatellite(juno);
+
+        assertTrue(rocket.getChanges().isEmpty());
+    }
+
+    @Test
+    void changesOf_missionNameAndSpaceport() {
+        Spaceport spaceport = new Spaceport(UUID.randomUUID(), 0.0, 15.3);
+        rocket.setMissionName(null);
+        rocket.setSpaceport(spaceport);
+
+        Document update = RocketUpdates.changesOf(rocket).getUpdateObject();
+
+        assertEquals(new Document("searchGrams.missionName", List.of()).append("spaceport", spaceport),
+                update.get("$set"));
+        assertEquals(Set.of("missionName"), update.get("$unset", Document.class).keySet());
+    }
+
+    @Test
+    void resolveSpaceport_isNotAChange() {
+        rocket.resolveSpaceport(new Spaceport(UUID.randomUUID(), 0.0, 15.3));
+
+        assertTrue(rocket.getChanges().isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package com.griddynamics.akarsakov.repositories;
+
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.LIKE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("unitTest")
+@SuppressWarnings("deprecation")
+class SlowQueryListenerTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MongoDatabase databaseMock = Mockito.mock(MongoDatabase.class);
+    private final List<QueryRecord> records = new ArrayList<>();
+    private final SlowQueryListener listener =
+            new SlowQueryListener(Duration.ofMillis(100), database -> databaseMock, Runnable::run, records::add);
+
+    private static final BsonDocument FIND = BsonDocument.parse(
+            "{find: 'rocket', filter: {missionName: {$regex: 'gps', $options: 'i'}}, limit: 1, "
+                    + "lsid: {id: 1}, $db: 'test'}");
+    private static final BsonDocument FIND_REPLY = BsonDocument.parse(
+            "{cursor: {id: 0, ns: 'test.rocket', firstBatch: [{_id: 1}]}, ok: 1}");
+
+    private void runQuery(int requestId, long elapsedMillis) {
+        listener.commandStarted(new CommandStartedEvent(requestId, CONNECTION, "test", "find", FIND));
+        listener.commandSucceeded(new CommandSucceededEvent(requestId, CONNECTION, "find", FIND_REPLY,
+                TimeUnit.MILLISECONDS.toNanos(elapsedMillis)));
+    }
+
+    @Test
+    void fastQueryIsRecordedWithoutExplain() {
+        runQuery(1, 5);
+
+        assertEquals(1, records.size());
+        QueryRecord record = records.get(0);
+        assertEquals("find", record.commandName());
+        assertEquals("rocket", record.collection());
+        assertEquals(1, record.returned());
+        assertEquals(-1, record.examined());
+        assertFalse(record.isExplained());
+        verifyNoInteractions(databaseMock);
+    }
+
+    @Test
+    void slowQueryIsExplainedWithConditions() {
+        Document plan = new Document("stage", "COLLSCAN");
+        when(databaseMock.runCommand(any(BsonDocument.class))).thenReturn(new Document()
+                .append("queryPlanner", new Document("winningPlan", plan))
+                .append("executionStats", new Document("totalDocsExamined", 100_000)));
+        List<SearchCondition> conditions = List.of(new SearchCondition("missionName", LIKE, "gps"));
+
+        try (SearchContext.Scope ignored = SearchContext.open(conditions)) {
+            runQuery(2, 250);
+        }
+
+        QueryRecord record = records.get(0);
+        assertTrue(record.isExplained());
+        assertEquals(plan, record.plan());
+        assertEquals(100_000, record.examined());
+        assertEquals(1, record.returned());
+        assertEquals(conditions, record.conditions());
+
+        ArgumentCaptor<BsonDocument> explain = ArgumentCaptor.forClass(BsonDocument.class);
+        verify(databaseMock).runCommand(explain.capture());
+        assertEquals("executionStats", explain.getValue().getString("verbosity").getValue());
+        assertFalse(explain.getValue().getDocument("explain").containsKey("lsid"));
+        assertFalse(explain.getValue().getDocument("explain").containsKey("$db"));
+    }
+
+    @Test
+    void slowQueryIsRecordedWithoutPlanWhenExplainsAreRejected() {
+        SlowQueryListener saturated = new SlowQueryListener(Duration.ofMillis(100), database -> databaseMock,
+                task -> {
+                    throw new RejectedExecutionException("full");
+                }, records::add);
+
+        saturated.commandStarted(new CommandStartedEvent(4, CONNECTION, "test", "find", FIND));
+        saturated.commandSucceeded(new CommandSucceededEvent(4, CONNECTION, "find", FIND_REPLY,
+                TimeUnit.MILLISECONDS.toNanos(250)));
+
+        assertEquals(1, records.size());
+        assertFalse(records.get(0).isExplained());
+        assertEquals(FIND, records.get(0).command());
+        verifyNoInteractions(databaseMock);
+    }
+
+    @Test
+    void otherCommandsAreIgnored() {
+        BsonDocument insert = BsonDocument.parse("{insert: 'rocket', documents: []}");
+
+        listener.commandStarted(new CommandStartedEvent(3, CONNECTION, "test", "insert", insert));
+        listener.commandSucceeded(new CommandSucceededEvent(3, CONNECTION, "insert",
+                BsonDocument.parse("{n: 0, ok: 1}"), TimeUnit.SECONDS.toNanos(1)));
+
+        assertTrue(records.isEmpty());
+        assertTrue(SearchContext.current().isEmpty());
+    }
+}
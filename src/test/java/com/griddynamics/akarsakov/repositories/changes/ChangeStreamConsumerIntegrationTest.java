@@ -0,0 +1,188 @@
+package com.griddynamics.akarsakov.repositories.changes;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.repositories.SpaceportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest(properties = {
+        "spring.mongodb.embedded.storage.repl-set-name=rs0",
+        "rockets.change-streams.enabled=true"
+})
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+@Import({ChangeStreamConsumer.class, ResumeTokenStore.class, ChangeStreamConsumerIntegrationTest.Listeners.class})
+class ChangeStreamConsumerIntegrationTest {
+    private static final long AWAIT_MILLIS = 10_000;
+
+    @Autowired
+    private ChangeStreamConsumer consumer;
+
+    @Autowired
+    private ResumeTokenStore tokenStore;
+
+    @Autowired
+    private RocketRepository rocketRepository;
+
+    @Autowired
+    private SpaceportRepository spaceportRepository;
+
+    @Autowired
+    private RecordingListener<Rocket> rocketListener;
+
+    @Autowired
+    private RecordingListener<Spaceport> spaceportListener;
+
+    @AfterEach
+    void cleanup() {
+        consumer.start();
+        rocketRepository.deleteAll();
+        spaceportRepository.deleteAll();
+        rocketListener.clear();
+        spaceportListener.clear();
+    }
+
+    @Test
+    void consumer_appliesInsertsUpdatesAndDeletes() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+        rocketRepository.save(rocket);
+        await(() -> rocketListener.upsertsOf(rocket.getId()).size() == 1);
+
+        rocket.setMissionName("Juno");
+        rocketRepository.save(rocket);
+        await(() -> rocketListener.upsertsOf(rocket.getId()).size() == 2);
+        assertEquals("Juno", rocketListener.upsertsOf(rocket.getId()).get(1).getMissionName());
+
+        rocketRepository.delete(rocket);
+        await(() -> rocketListener.deleted.contains(rocket.getId()));
+
+        Spaceport spaceport = new Spaceport(UUID.randomUUID(), 28.5, -80.6);
+        spaceportRepository.save(spaceport);
+        await(() -> spaceportListener.upsertsOf(spaceport.getId()).size() == 1);
+
+        consumer.stop();
+        assertNotNull(tokenStore.load("rocket"));
+        assertNotNull(tokenStore.load("spaceport"));
+    }
+
+    @Test
+    void consumer_resumesAfterRestartWithoutReset() {
+        Rocket seen = new Rocket(UUID.randomUUID(), "light");
+        rocketRepository.save(seen);
+        await(() -> rocketListener.upsertsOf(seen.getId()).size() == 1);
+        consumer.stop();
+        int resets = rocketListener.resets.get();
+
+        Rocket missed = new Rocket(UUID.randomUUID(), "super-heavy");
+        rocketRepository.save(missed);
+        consumer.start();
+
+        await(() -> rocketListener.upsertsOf(missed.getId()).size() == 1);
+        assertEquals(resets, rocketListener.resets.get());
+    }
+
+    // A single event stays below the flush count, so only the flush interval stores its token
+    @Test
+    void consumer_flushesTokenOfQuietStream() {
+        tokenStore.clear("rocket");
+        Rocket rocket = new Rocket(UUID.randomUUID(), "medium");
+        rocketRepository.save(rocket);
+        await(() -> rocketListener.upsertsOf(rocket.getId()).size() == 1);
+
+        await(() -> tokenStore.load("rocket") != null);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Change stream events were not delivered in time");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Listeners {
+        @Bean
+        RecordingListener<Rocket> rocketListener() {
+            return new RecordingListener<>(Rocket.class, Rocket::getId);
+        }
+
+        @Bean
+        RecordingListener<Spaceport> spaceportListener() {
+            return new RecordingListener<>(Spaceport.class, Spaceport::getId);
+        }
+    }
+
+    static class RecordingListener<T> implements EntityChangeListener<T> {
+        private final Class<T> entityType;
+        private final Function<T, UUID> idOf;
+        private final List<T> upserted = new CopyOnWriteArrayList<>();
+        private final List<Object> deleted = new CopyOnWriteArrayList<>();
+        private final AtomicInteger resets = new AtomicInteger();
+
+        RecordingListener(Class<T> entityType, Function<T, UUID> idOf) {
+            this.entityType = entityType;
+            this.idOf = idOf;
+        }
+
+        List<T> upsertsOf(UUID id) {
+            return upserted.stream().filter(entity -> id.equals(idOf.apply(entity))).toList();
+        }
+
+        @Override
+        public Class<T> entityType() {
+            return entityType;
+        }
+
+        @Override
+        public void onUpsert(T entity) {
+            upserted.add(entity);
+        }
+
+        @Override
+        public void onDelete(Object id) {
+            deleted.add(id);
+        }
+
+        @Override
+        public void onReset() {
+            resets.incrementAndGet();
+        }
+
+        void clear() {
+            upserted.clear();
+            deleted.clear();
+        }
+    }
+}
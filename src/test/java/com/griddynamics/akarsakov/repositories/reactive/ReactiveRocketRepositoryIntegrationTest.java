@@ -0,0 +1,110 @@
+package com.griddynamics.akarsakov.repositories.reactive;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.bson.Document;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+class ReactiveRocketRepositoryIntegrationTest {
+    @Autowired
+    private ReactiveRocketRepository repository;
+
+    @Autowired
+    private ReactiveSpaceportRepository spaceportRepository;
+
+    private static List<Rocket> rockets;
+    private static Spaceport spaceport;
+
+    @BeforeAll
+    static void initDatabase(@Autowired MongoTemplate mongoTemplate) {
+        spaceport = new Spaceport(UUID.randomUUID(), -80.6, 28.6);
+        spaceport.setName("Cape Canaveral");
+        mongoTemplate.save(spaceport);
+
+        rockets = List.of(
+                new Rocket(UUID.randomUUID(), "light"),
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "super-heavy")
+        );
+        rockets.get(0).setMissionName("GPS grid update");
+        rockets.get(1).setSpaceport(spaceport);
+        rockets.get(2).setSpaceport(spaceport);
+        rockets.get(2).addParameter("delta-V", "4500");
+
+        rockets.forEach(mongoTemplate::save);
+    }
+
+    @AfterAll
+    static void cleanupDatabase(@Autowired MongoTemplate mongoTemplate) {
+        rockets.forEach(mongoTemplate::remove);
+        mongoTemplate.remove(spaceport);
+    }
+
+    @Test
+    void findById_resolvesSpaceport() {
+        StepVerifier.create(repository.findById(rockets.get(1).getId()))
+                .assertNext(rocket -> {
+                    assertEquals(rockets.get(1), rocket);
+                    assertFalse(rocket.getSpaceport() instanceof LazyLoadingProxy);
+                    assertEquals(spaceport, rocket.getSpaceport());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAll() {
+        StepVerifier.create(repository.findAll())
+                .expectNextSequence(rockets)
+                .verifyComplete();
+    }
+
+    @Test
+    void findFirstByFilter() {
+        Document filter = SearchPlan.compile(List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.GREATER_THAN, 2000))).filter();
+
+        StepVerifier.create(repository.findFirstByFilter(filter))
+                .expectNext(rockets.get(2))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamByFilter() {
+        Document filter = SearchPlan.compile(List.of(
+                new SearchCondition("spaceport", SearchCondition.Condition.EQUALS, spaceport.getId()))).filter();
+
+        StepVerifier.create(repository.streamByFilter(filter, 1))
+                .assertNext(rocket -> assertEquals(spaceport, rocket.getSpaceport()))
+                .assertNext(rocket -> assertEquals(rockets.get(2), rocket))
+                .verifyComplete();
+    }
+
+    @Test
+    void spaceportFindByNameIgnoreCase() {
+        StepVerifier.create(spaceportRepository.findByNameIgnoreCase("cape canaveral"))
+                .expectNext(spaceport)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,98 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.BulkUpdateReport;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Tag("unitTest")
+class LaunchBatchServiceImplTest {
+
+    private final ChanceCalculator calculatorMock = Mockito.mock(ChanceCalculator.class);
+    private final RocketRepository repositoryMock = Mockito.mock(RocketRepository.class);
+    private final LaunchBatchServiceImpl service =
+            new LaunchBatchServiceImpl(new LauncherServiceImpl(calculatorMock), repositoryMock);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void launchAll_singleBulkUpdateWithLaunchFieldsOnly() {
+        Spaceport spaceport = new Spaceport(UUID.randomUUID(), 20.0, 70.0);
+        Rocket first = new Rocket(UUID.randomUUID(), "light");
+        first.addParameter("delta-V", "1500");
+        first.clearChanges();
+        Rocket second = new Rocket(UUID.randomUUID(), "heavy");
+
+        doReturn(11, 10).when(calculatorMock).rollForLaunchSuccess();
+        when(repositoryMock.bulkUpdate(any())).thenReturn(new BulkUpdateReport(2, 2, Map.of()));
+
+        List<LaunchResult> results = service.launchAll(List.of(
+                new LaunchRequest(first, spaceport),
+                new LaunchRequest(second, spaceport)
+        ));
+
+        assertEquals(List.of(new LaunchResult(first, true, null), new LaunchResult(second, false, null)), results);
+
+        ArgumentCaptor<List<Pair<UUID, Update>>> updates = ArgumentCaptor.forClass(List.class);
+        verify(repositoryMock, times(1)).bulkUpdate(updates.capture());
+        verifyNoMoreInteractions(repositoryMock);
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                updates.getValue().stream().map(Pair::getFirst).toList());
+        Document set = (Document) updates.getValue().get(0).getSecond().getUpdateObject().get("$set");
+        assertEquals(spaceport, set.get("spaceport"));
+        assertEquals("true", set.get("parameters.Success"));
+        assertEquals(true, set.get("typedParameters.Success"));
+        assertEquals(100L, set.get("typedParameters.Fuel"));
+        assertFalse(set.containsKey("parameters.delta-V"));
+        assertTrue(first.getChanges().isEmpty());
+        assertTrue(second.getChanges().isEmpty());
+    }
+
+    @Test
+    void launchAll_reportsWriteErrorsPerRocket() {
+        Spaceport spaceport = new Spaceport(UUID.randomUUID(), 20.0, 70.0);
+        Rocket first = new Rocket(UUID.randomUUID(), "light");
+        Rocket second = new Rocket(UUID.randomUUID(), "heavy");
+
+        doReturn(50).when(calculatorMock).rollForLaunchSuccess();
+        when(repositoryMock.bulkUpdate(any())).thenReturn(new BulkUpdateReport(1, 1, Map.of(1, "write failed")));
+
+        List<LaunchResult> results = service.launchAll(List.of(
+                new LaunchRequest(first, spaceport),
+                new LaunchRequest(second, spaceport)
+        ));
+
+        assertTrue(results.get(0).isPersisted());
+        assertFalse(results.get(1).isPersisted());
+        assertEquals("write failed", results.get(1).writeError());
+        assertTrue(results.get(1).successful());
+        assertTrue(first.getChanges().isEmpty());
+        assertFalse(second.getChanges().isEmpty());
+    }
+
+    @Test
+    void launchAll_invalidRequest() {
+        List<LaunchRequest> requests = new ArrayList<>();
+        requests.add(new LaunchRequest(new Rocket(UUID.randomUUID(), "light"), null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.launchAll(requests));
+        verifyNoInteractions(repositoryMock, calculatorMock);
+    }
+}
@@ -5,9 +5,13 @@ import com.griddynamics.akarsakov.entities.Spaceport;
 import com.griddynamics.akarsakov.utils.ChanceCalculator;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mockito;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +44,52 @@ class LauncherServiceImplTest {
         ));
     }
 
+    @Test
+    void launchWithConfiguredFailureChance() {
+        Mockito.doReturn(30).when(calculatorMock).rollForLaunchSuccess();
+
+        LauncherServiceImpl service = new LauncherServiceImpl(calculatorMock, new LaunchOptions(50), Runnable::run);
+
+        assertFalse(service.launch(
+                new Rocket(UUID.randomUUID(), "light"),
+                new Spaceport(UUID.randomUUID(), 20.0, 70.0)
+        ));
+    }
+
+    @Test
+    void launchOutcomesCountedPerSpaceport() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Spaceport spaceport = new Spaceport(UUID.randomUUID(), 20.0, 70.0);
+        LauncherServiceImpl service =
+                new LauncherServiceImpl(calculatorMock, LaunchOptions.DEFAULT, Runnable::run, registry);
+
+        Mockito.doReturn(11, 11, 3).when(calculatorMock).rollForLaunchSuccess();
+        for (int i = 0; i < 3; i++) {
+            service.launch(new Rocket(UUID.randomUUID(), "light"), spaceport);
+        }
+
+        assertEquals(2, registry.get(LauncherServiceImpl.LAUNCHES_COUNTER)
+                .tag("spaceport", spaceport.getId().toString()).tag("outcome", "success").counter().count());
+        assertEquals(1, registry.get(LauncherServiceImpl.LAUNCHES_COUNTER)
+                .tag("spaceport", spaceport.getId().toString()).tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void launchAsync() throws Exception {
+        Mockito.doReturn(11).when(calculatorMock).rollForLaunchSuccess();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            LauncherServiceImpl service = new LauncherServiceImpl(calculatorMock, executor);
+            Rocket rocket = new Rocket(UUID.randomUUID(), "light");
+
+            assertTrue(service.launchAsync(rocket, new Spaceport(UUID.randomUUID(), 20.0, 70.0))
+                    .get(5, TimeUnit.SECONDS));
+            assertEquals("true", rocket.getParameters().get("Success"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void deliverRocketToSpaceport() {
         Spaceport port = new Spaceport(UUID.randomUUID(), 25.0, 90.0);
@@ -0,0 +1,102 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class RocketCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RocketCache cache = RocketCache.create(100, Duration.ofMinutes(5), registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Function<UUID, Optional<Rocket>> loaderOf(Rocket rocket) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(rocket);
+        };
+    }
+
+    @Test
+    void get_loadsOnceAndRecordsHits() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+
+        assertEquals(rocket, cache.get(rocket.getId(), loaderOf(rocket)));
+        assertEquals(rocket, cache.get(rocket.getId(), loaderOf(rocket)));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("cache.gets").tag("cache", RocketCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", RocketCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_missingRocketIsNotCached() {
+        UUID id = UUID.randomUUID();
+
+        assertNull(cache.get(id, loaderOf(null)));
+        assertNull(cache.get(id, loaderOf(null)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_returnsIndependentCopies() {
+        Rocket stored = new Rocket(UUID.randomUUID(), "heavy");
+        stored.addParameter("delta-V", "1700");
+        stored.clearChanges();
+
+        Rocket first = cache.get(stored.getId(), loaderOf(stored));
+        first.setMissionName("changed locally");
+        first.addParameter("delta-V", "2000");
+        Rocket second = cache.get(stored.getId(), loaderOf(stored));
+
+        assertNotSame(stored, first);
+        assertNotSame(first, second);
+        assertNull(second.getMissionName());
+        assertEquals("1700", second.getParameters().get("delta-V"));
+        assertEquals(1700L, second.getTypedParameter("delta-V"));
+        assertTrue(second.getChanges().isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate() {
+        Rocket first = new Rocket(UUID.randomUUID(), "heavy");
+        Rocket second = new Rocket(UUID.randomUUID(), "light");
+        cache.get(first.getId(), loaderOf(first));
+        cache.get(second.getId(), loaderOf(second));
+
+        cache.invalidate(first.getId());
+        cache.get(first.getId(), loaderOf(first));
+        cache.invalidateAll(List.of(first.getId(), second.getId()));
+        cache.get(first.getId(), loaderOf(first));
+        cache.get(second.getId(), loaderOf(second));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void disabled_alwaysLoads() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+        RocketCache disabled = RocketCache.disabled();
+
+        assertFalse(disabled.isEnabled());
+        disabled.get(rocket.getId(), loaderOf(rocket));
+        disabled.get(rocket.getId(), loaderOf(rocket));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -4,6 +4,8 @@ import com.griddynamics.akarsakov.entities.Rocket;
 import com.griddynamics.akarsakov.entities.Satellite;
 import com.griddynamics.akarsakov.repositories.RocketRepository;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -12,9 +14,13 @@ import org.mockito.Mockito;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @Tag("unitTest")
@@ -48,11 +54,59 @@ class RocketComposerServiceImplTest {
                 new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, 1500)
         );
 
-        when(repositoryMock.findAll()).thenReturn(List.of(rocket));
+        when(repositoryMock.findFirstByFilter(any())).thenReturn(Optional.of(rocket));
 
         assertEquals(rocket, service.getFirstRocketByConditions(conditions));
     }
 
+    @Test
+    void getFirstRocketByConditionsAsync() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RocketComposerServiceImpl asyncService =
+                    new RocketComposerServiceImpl(repositoryMock, SearchPlanOptions.DEFAULT, executor);
+            List<SearchCondition> conditions = List.of(
+                    new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, 1500)
+            );
+
+            when(repositoryMock.findFirstByFilter(any())).thenReturn(Optional.of(rocket));
+
+            assertEquals(rocket, asyncService.getFirstRocketByConditionsAsync(conditions).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getFirstRocketsByConditions() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, 1500)
+        );
+
+        when(repositoryMock.findFirstByFilters(any())).thenReturn(List.of(Optional.of(rocket)));
+
+        assertEquals(List.of(rocket), service.getFirstRocketsByConditions(List.of(conditions)));
+    }
+
+    @Test
+    void getFirstRocketByPlan() {
+        SearchPlan plan = service.compileSearchPlan(List.of(
+                new SearchCondition("delta-V", SearchCondition.Condition.EQUALS, 1500)
+        ));
+
+        when(repositoryMock.findFirstByFilter(plan.filter())).thenReturn(Optional.of(rocket));
+
+        assertEquals(rocket, service.getFirstRocketByPlan(plan));
+        assertEquals(rocket, service.getFirstRocketByPlan(plan));
+    }
+
+    @Test
+    void saveChanges() {
+        when(repositoryMock.saveChanges(rocket)).thenReturn(true);
+
+        assertTrue(service.saveChanges(rocket));
+    }
+
     @Test
     void addLaunchParameter() {
         assertFalse(rocket.getParameters().containsKey("fuel type"));
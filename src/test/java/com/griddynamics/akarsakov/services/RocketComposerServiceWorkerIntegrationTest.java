@@ -0,0 +1,343 @@
+package com.griddynamics.akarsakov.services;
+
+import com.griddynamics.akarsakov.TestingSpringBootApplication;
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The worker search behaviour, checked against the filters Mongo actually evaluates
+@Tag("integration")
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+@ContextConfiguration(classes = {TestingSpringBootApplication.class})
+class RocketComposerServiceWorkerIntegrationTest {
+    @Autowired
+    private RocketRepository repository;
+
+    private RocketComposerServiceWorker worker;
+
+    private static List<Rocket> rockets;
+
+    @BeforeAll
+    static void initDatabase(@Autowired MongoTemplate mongoTemplate) {
+        rockets = List.of(
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "super-heavy"),
+                new Rocket(UUID.randomUUID(), "light")
+        );
+
+        rockets.get(0).setMissionName("GPS renew");
+        rockets.get(1).setMissionName("GPS renew");
+        rockets.get(2).setMissionName("Juno");
+
+        Satellite satellite = new Satellite(UUID.randomUUID());
+        satellite.setAssignment("far space exploration");
+        rockets.get(0).addSatellite(satellite);
+
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        juno.setAssignment("research of far space magnetic fields");
+        rockets.get(2).addSatellite(juno);
+
+        rockets.get(0).addParameter("delta-V", "2000");
+        rockets.get(1).addParameter("delta-V", "1700");
+        rockets.get(2).addParameter("delta-V", "4500");
+        rockets.get(2).addParameter("purpose", "study of Jupiter and its closest moons");
+        rockets.get(3).addParameter("delta-V", "900");
+
+        rockets.forEach(mongoTemplate::save);
+    }
+
+    @AfterAll
+    static void cleanupDatabase(@Autowired MongoTemplate mongoTemplate) {
+        rockets.forEach(mongoTemplate::remove);
+    }
+
+    @BeforeEach
+    void initWorker() {
+        worker = new RocketComposerServiceWorker(repository);
+    }
+
+    @Test
+    void searchByConditions_emptyConditionsList() {
+        assertEquals(rockets.get(0), worker.searchByConditions(new ArrayList<>()));
+    }
+
+    @Test
+    void findRocketWithIdInConditions_rocketId_NOT_EQUALS_case() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", NOT_EQUALS, UUID.randomUUID()),
+                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2200)
+        );
+
+        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRocketWithIdInConditions_rocketId_EQUALS_case() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", EQUALS, rockets.get(3).getId()),
+                new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1900)
+        );
+
+        assertEquals(rockets.get(3), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRocketWithoutIdInConditions_noRocketIdInConditions() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2000)
+        );
+
+        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRockets_getAll() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("delta-V", GREATER_THAN, 2500));
+
+        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRockets_allMainConditionsAreSet() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("missionName", LIKE, "gps")
+        );
+
+        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRockets_onlyTypeConditionSet() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("type", EQUALS, "heavy"));
+
+        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void findRockets_onlyMissionNameConditionSet() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("missionName", LIKE, "gps"));
+
+        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkCondition_nullCondition() {
+        List<SearchCondition> conditions = new ArrayList<>(1);
+        conditions.add(null);
+
+        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkCondition_type() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
+                new SearchCondition("type", EQUALS, "light")
+        );
+
+        assertEquals(rockets.get(3), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkCondition_missionName() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
+                new SearchCondition("missionName", EQUALS, "Juno")
+        );
+
+        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkCondition_noSatellites() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("attrName", EQUALS, "1"));
+
+        assertNull(worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkCondition_failureOnSatellite() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", EQUALS, rockets.get(0).getId()),
+                new SearchCondition("satellite.assignment", EQUALS, "navigation probe")
+        );
+
+        assertNull(worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkParameter_numericConditionWithNonNumericValue() {
+        SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, "NaN");
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> worker.searchByConditions(List.of(condition)));
+    }
+
+    // The in-memory scan used to throw on a stored value that is not a number, a query simply does not match it
+    @Test
+    void checkParameter_numericConditionWithNonNumericParameterValue() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "light");
+        rocket.addParameter("delta-V", "unknown");
+        repository.save(rocket);
+        try {
+            List<SearchCondition> conditions = List.of(
+                    new SearchCondition("id", EQUALS, rocket.getId()),
+                    new SearchCondition("delta-V", LESSER_THAN, 1000)
+            );
+
+            assertNull(worker.searchByConditions(conditions));
+        } finally {
+            repository.delete(rocket);
+        }
+    }
+
+    @Test
+    void checkParameter_failed_NOT_EQUALS_condition() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", EQUALS, rockets.get(3).getId()),
+                new SearchCondition("delta-V", NOT_EQUALS, 900)
+        );
+
+        assertNull(worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkParameter_successful_NOT_EQUALS_condition() {
+        List<SearchCondition> conditions = List.of(
+                new SearchCondition("id", EQUALS, rockets.get(3).getId()),
+                new SearchCondition("delta-V", NOT_EQUALS, 700)
+        );
+
+        assertEquals(rockets.get(3), worker.searchByConditions(conditions));
+    }
+
+    @Test
+    void checkParameter_successful_EQUALS_condition() {
+        SearchCondition condition = new SearchCondition("delta-V", EQUALS, 1700);
+
+        assertEquals(rockets.get(1), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkParameter_successful_LIKE_condition() {
+        SearchCondition condition = new SearchCondition("purpose", LIKE, "Jupiter");
+
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkParameter_successful_LESSER_THAN_condition() {
+        SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, -1.001);
+
+        assertNull(worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkParameter_successful_GREATER_THAN_condition() {
+        SearchCondition condition = new SearchCondition("delta-V", GREATER_THAN, 2000);
+
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkParameter_successful_LESSER_OR_EQUALS_THAN_condition() {
+        SearchCondition condition = new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1699.999);
+
+        assertEquals(rockets.get(3), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkParameter_successful_GREATER_OR_EQUALS_THAN_condition() {
+        SearchCondition condition = new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700.0001);
+
+        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_noSatelliteConditions() {
+        SearchCondition condition = new SearchCondition("rocketParam", NOT_EQUALS, "some value");
+
+        assertNull(worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteName_NOT_EQUALS() {
+        SearchCondition condition = new SearchCondition("satellite.name", NOT_EQUALS, "Voyager 2");
+
+        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteName_EQUALS() {
+        SearchCondition condition = new SearchCondition("satellite.name", EQUALS, "Juno");
+
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteName_LIKE() {
+        SearchCondition condition = new SearchCondition("satellite.name", LIKE, "Jun");
+
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteName_default() {
+        SearchCondition condition = new SearchCondition("satellite.name", LESSER_THAN, 214);
+
+        assertNull(worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteAssignment_NOT_EQUALS() {
+        SearchCondition condition = new SearchCondition("satellite.assignment",
+                NOT_EQUALS,
+                "far space exploration");
+
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteAssignment_EQUALS() {
+        SearchCondition condition = new SearchCondition("satellite.assignment",
+                EQUALS,
+                "far space exploration");
+
+        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteAssignment_LIKE() {
+        SearchCondition condition = new SearchCondition("satellite.assignment",
+                LIKE, "far space");
+
+        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+    }
+
+    @Test
+    void checkSatellite_satelliteAssignment_default() {
+        SearchCondition condition = new SearchCondition("satellite.assignment", LESSER_THAN, 3);
+
+        assertNull(worker.searchByConditions(List.of(condition)));
+    }
+}
@@ -4,18 +4,30 @@ import com.griddynamics.akarsakov.entities.Rocket;
 import com.griddynamics.akarsakov.entities.Satellite;
 import com.griddynamics.akarsakov.entities.Spaceport;
 import com.griddynamics.akarsakov.repositories.RocketRepository;
+import com.griddynamics.akarsakov.services.index.RocketIndex;
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchMetrics;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import com.griddynamics.akarsakov.services.search.SearchPlanOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @Tag("unitTest")
 class RocketComposerServiceWorkerTest {
@@ -55,20 +67,23 @@ class RocketComposerServiceWorkerTest {
         rockets.get(2).addParameter("delta-V", "4500");
         rockets.get(2).addParameter("purpose", "study of Jupiter and its closest moons");
         rockets.get(3).addParameter("delta-V", "900");
+        rockets.get(3).addParameter("stage.count", "2");
     }
 
     @Test
     void searchByConditions_nullConditionsList() {
         assertNull(worker.searchByConditions(null));
+        verifyNoInteractions(mockRepository);
     }
 
     @Test
     void searchByConditions_emptyConditionsList() {
         assertNull(worker.searchByConditions(new ArrayList<>()));
+        verify(mockRepository).findFirstByFilter(new Document());
     }
 
     @Test
-    void findRocketWithIdInConditions_rocketId_default_case() {
+    void searchByConditions_rocketId_default_case() {
         List<SearchCondition> conditions = List.of(
                 new SearchCondition("id", LESSER_THAN, UUID.randomUUID())
         );
@@ -76,19 +91,7 @@ class RocketComposerServiceWorkerTest {
     }
 
     @Test
-    void findRocketWithIdInConditions_rocketId_NOT_EQUALS_case() {
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("id", NOT_EQUALS, UUID.randomUUID()),
-                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2200)
-        );
-
-        when(mockRepository.findByIdNotIn(any())).thenReturn(rockets);
-
-        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void findRocketWithIdInConditions_rocketId_EQUALS_case() {
+    void searchByConditions_pushedDownConditionsUseSingleQuery() {
         Rocket lightOne = rockets.get(3);
 
         List<SearchCondition> conditions = List.of(
@@ -96,81 +99,34 @@ class RocketComposerServiceWorkerTest {
                 new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1900)
         );
 
-        when(mockRepository.findById(lightOne.getId())).thenReturn(Optional.of(lightOne));
+        when(mockRepository.findFirstByFilter(SearchPlan.compile(conditions).filter()))
+                .thenReturn(Optional.of(lightOne));
 
         assertEquals(lightOne, worker.searchByConditions(conditions));
+        verify(mockRepository, never()).streamByFilter(any(), anyInt());
     }
 
     @Test
-    void findRocketWithoutIdInConditions_noRocketIdInConditions() {
+    void searchByConditions_nothingFound() {
         List<SearchCondition> conditions = List.of(
-                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2000)
+                new SearchCondition("delta-V", GREATER_THAN, 10000)
         );
 
-        when(mockRepository.findAll()).thenReturn(rockets);
-
-        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void findRockets_getAll() {
-        when(mockRepository.findAll()).thenReturn(rockets);
-
-        List<SearchCondition> conditions = List.of(new SearchCondition("delta-V", GREATER_THAN, 2500));
-
-        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
-    }
+        when(mockRepository.findFirstByFilter(any())).thenReturn(Optional.empty());
 
-    @Test
-    void findRockets_allMainConditionsAreSet() {
-        List<Rocket> foundRockets = List.of(rockets.get(0), rockets.get(1));
-
-        when(mockRepository.findByTypeAndMissionNameRegexes(any(), any())).thenReturn(foundRockets);
-
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("type", EQUALS, "heavy"),
-                new SearchCondition("missionName", LIKE, "gps")
-        );
-
-        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void findRockets_onlyTypeConditionSet() {
-        List<Rocket> foundRockets = List.of(rockets.get(0), rockets.get(1));
-
-        when(mockRepository.findByTypeRegex(any())).thenReturn(foundRockets);
-
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("type", EQUALS, "heavy")
-        );
-
-        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void findRockets_onlyMissionNameConditionSet() {
-        List<Rocket> foundRockets = List.of(rockets.get(0), rockets.get(1));
-
-        when(mockRepository.findByMissionNameRegex(any())).thenReturn(foundRockets);
-
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("missionName", LIKE, "gps")
-        );
-
-        assertEquals(rockets.get(0), worker.searchByConditions(conditions));
+        assertNull(worker.searchByConditions(conditions));
     }
 
     @Test
     void checkCondition_nullRocket() {
         List<SearchCondition> conditions = List.of(
-                new SearchCondition("attrName", EQUALS, "1")
+                new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0")
         );
 
         List<Rocket> foundRockets = new ArrayList<>(1);
         foundRockets.add(null);
 
-        when(mockRepository.findAll()).thenReturn(foundRockets);
+        when(mockRepository.streamByFilterWithSpaceports(any(), anyInt())).thenReturn(foundRockets.stream());
 
         assertNull(worker.searchByConditions(conditions));
     }
@@ -180,237 +136,246 @@ class RocketComposerServiceWorkerTest {
         List<SearchCondition> conditions = new ArrayList<>(1);
         conditions.add(null);
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.findFirstByFilter(new Document())).thenReturn(Optional.of(rockets.get(0)));
 
         assertEquals(rockets.get(0), worker.searchByConditions(conditions));
     }
 
-    @Test
-    void checkCondition_type() {
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
-                new SearchCondition("type", EQUALS, "light")
-        );
-
-        List<Rocket> foundRockets = List.of(rockets.get(1), rockets.get(2), rockets.get(3));
-
-        when(mockRepository.findByIdNotIn(any())).thenReturn(foundRockets);
-
-        assertEquals(rockets.get(3), worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void checkCondition_missionName() {
-        List<SearchCondition> conditions = List.of(
-                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
-                new SearchCondition("missionName", EQUALS, "Juno")
-        );
-
-        List<Rocket> foundRockets = List.of(rockets.get(1), rockets.get(2), rockets.get(3));
-
-        when(mockRepository.findByIdNotIn(any())).thenReturn(foundRockets);
-
-        assertEquals(rockets.get(2), worker.searchByConditions(conditions));
-    }
-
     @Test
     void checkCondition_spaceport() {
         SearchCondition condition = new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0");
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.streamByFilterWithSpaceports(any(), anyInt())).thenReturn(rockets.stream());
 
         assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+        verify(mockRepository)
+                .streamByFilterWithSpaceports(eq(new Document("spaceport", new Document("$exists", true))), anyInt());
     }
 
     @Test
-    void checkCondition_noSatellites() {
-        List<SearchCondition> conditions = List.of(new SearchCondition("attrName", EQUALS, "1"));
-
-        when(mockRepository.findAll()).thenReturn(rockets);
-
-        assertNull(worker.searchByConditions(conditions));
-    }
-
-    @Test
-    void checkCondition_failureOnSatellite() {
+    void checkCondition_spaceportWithPushedDownCondition() {
         List<SearchCondition> conditions = List.of(
-                new SearchCondition("id", EQUALS, rockets.get(0).getId()),
-                new SearchCondition("satellite.assignment", EQUALS, "navigation probe")
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0")
         );
 
-        when(mockRepository.findById(any())).thenReturn(Optional.ofNullable(rockets.get(0)));
+        when(mockRepository.streamByFilterWithSpaceports(any(), anyInt()))
+                .thenReturn(Stream.of(rockets.get(0), rockets.get(1)));
 
         assertNull(worker.searchByConditions(conditions));
     }
 
     @Test
-    void checkParameter_numericConditionWithNonNumericValue() {
-        assertThrowsExactly(
-                IllegalArgumentException.class,
-                () -> {
-                    SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, "NaN");
-
-                    when(mockRepository.findAll()).thenReturn(rockets);
-
-                    worker.searchByConditions(List.of(condition));
-                });
-    }
-
-    @Test
-    void checkParameter_failed_NOT_EQUALS_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", NOT_EQUALS, 900);
+    void checkCondition_spaceportIdIsPushedDown() {
+        Spaceport spaceport = rockets.get(2).getSpaceport();
+        SearchCondition condition = new SearchCondition("spaceport", EQUALS, spaceport);
 
-        when(mockRepository.findAll()).thenReturn(List.of(rockets.get(3)));
+        when(mockRepository.findFirstByFilter(new Document("spaceport.$id", spaceport.getId())))
+                .thenReturn(Optional.of(rockets.get(2)));
 
-        assertNull(worker.searchByConditions(List.of(condition)));
+        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+        verify(mockRepository, never()).streamByFilterWithSpaceports(any(), anyInt());
     }
 
     @Test
-    void checkParameter_successful_NOT_EQUALS_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", NOT_EQUALS, 700);
+    void checkCondition_residualParameter() {
+        SearchCondition condition = new SearchCondition("stage.count", EQUALS, 2);
 
-        when(mockRepository.findAll()).thenReturn(List.of(rockets.get(3)));
+        when(mockRepository.streamByFilter(any(), anyInt())).thenReturn(rockets.stream());
 
         assertEquals(rockets.get(3), worker.searchByConditions(List.of(condition)));
+        verify(mockRepository).streamByFilter(eq(new Document()), anyInt());
     }
 
     @Test
-    void checkParameter_successful_EQUALS_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", EQUALS, 1700);
+    void checkCondition_residualParameterNotFound() {
+        SearchCondition condition = new SearchCondition("stage.count", GREATER_THAN, 2);
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.streamByFilter(any(), anyInt())).thenReturn(rockets.stream());
 
-        assertEquals(rockets.get(1), worker.searchByConditions(List.of(condition)));
+        assertNull(worker.searchByConditions(List.of(condition)));
     }
 
     @Test
-    void checkParameter_successful_LIKE_condition() {
-        SearchCondition condition = new SearchCondition("purpose", LIKE, "Jupiter");
+    void checkCondition_candidatesStreamClosedAfterFirstMatch() {
+        SearchCondition condition = new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0");
+        AtomicBoolean closed = new AtomicBoolean();
+        AtomicInteger consumed = new AtomicInteger();
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.streamByFilterWithSpaceports(any(), anyInt())).thenReturn(rockets.stream()
+                .peek(rocket -> consumed.incrementAndGet())
+                .onClose(() -> closed.set(true)));
 
         assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+        assertEquals(3, consumed.get());
+        assertTrue(closed.get());
     }
 
     @Test
-    void checkParameter_successful_LESSER_THAN_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, -1.001);
-
-        when(mockRepository.findAll()).thenReturn(rockets);
+    void checkParameter_numericConditionWithNonNumericValue() {
+        assertThrowsExactly(
+                IllegalArgumentException.class,
+                () -> {
+                    SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, "NaN");
 
-        assertNull(worker.searchByConditions(List.of(condition)));
+                    worker.searchByConditions(List.of(condition));
+                });
     }
 
     @Test
-    void checkParameter_successful_GREATER_THAN_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", GREATER_THAN, 2000);
-
-        when(mockRepository.findAll()).thenReturn(rockets);
-
-        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+    void searchByConditionSets_nullList() {
+        assertTrue(worker.searchByConditionSets(null).isEmpty());
+        verifyNoInteractions(mockRepository);
     }
 
     @Test
-    void checkParameter_successful_LESSER_OR_EQUALS_THAN_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1699.999);
-
-        when(mockRepository.findAll()).thenReturn(rockets);
+    void searchByConditionSets_pushedDownSetsShareOneQuery() {
+        List<SearchCondition> heavy = List.of(new SearchCondition("type", EQUALS, "heavy"));
+        List<SearchCondition> juno = List.of(new SearchCondition("missionName", EQUALS, "Juno"));
+        List<SearchCondition> missing = List.of(new SearchCondition("delta-V", EQUALS, 10000));
 
-        assertEquals(rockets.get(3), worker.searchByConditions(List.of(condition)));
-    }
-
-    @Test
-    void checkParameter_successful_GREATER_OR_EQUALS_THAN_condition() {
-        SearchCondition condition = new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700.0001);
+        when(mockRepository.findFirstByFilters(List.of(
+                SearchPlan.compile(heavy).filter(),
+                SearchPlan.compile(juno).filter(),
+                SearchPlan.compile(missing).filter()
+        ))).thenReturn(List.of(Optional.of(rockets.get(0)), Optional.of(rockets.get(2)), Optional.empty()));
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        List<List<SearchCondition>> conditionSets = new ArrayList<>();
+        conditionSets.add(heavy);
+        conditionSets.add(null);
+        conditionSets.add(juno);
+        conditionSets.add(missing);
 
-        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+        assertEquals(Arrays.asList(rockets.get(0), null, rockets.get(2), null),
+                worker.searchByConditionSets(conditionSets));
+        verify(mockRepository, never()).findFirstByFilter(any());
+        verify(mockRepository, never()).streamByFilter(any(), anyInt());
     }
 
     @Test
-    void checkSatellite_noSatelliteConditions() {
-        SearchCondition condition = new SearchCondition("rocketParam", NOT_EQUALS, "some value");
+    void searchByConditionSets_broadSetsAreQueriedOneByOne() {
+        List<SearchCondition> heavy = List.of(new SearchCondition("type", EQUALS, "heavy"));
+        List<SearchCondition> fast = List.of(new SearchCondition("delta-V", GREATER_THAN, 1000));
+        Document fastFilter = SearchPlan.compile(fast).filter();
 
-        when(mockRepository.findAll()).thenReturn(List.of(rockets.get(0), rockets.get(2)));
+        when(mockRepository.findFirstByFilters(List.of(SearchPlan.compile(heavy).filter())))
+                .thenReturn(List.of(Optional.of(rockets.get(0))));
+        when(mockRepository.findFirstByFilter(fastFilter)).thenReturn(Optional.of(rockets.get(1)));
 
-        assertNull(worker.searchByConditions(List.of(condition)));
+        assertEquals(List.of(rockets.get(1), rockets.get(0)), worker.searchByConditionSets(List.of(fast, heavy)));
+        verify(mockRepository, times(1)).findFirstByFilter(fastFilter);
     }
 
     @Test
-    void checkSatellite_satelliteName_NOT_EQUALS() {
-        SearchCondition condition = new SearchCondition("satellite.name", NOT_EQUALS, "Voyager 2");
+    void searchByConditionSets_residualSetsShareOneScan() {
+        List<SearchCondition> stages = List.of(new SearchCondition("stage.count", EQUALS, 2));
+        List<SearchCondition> heavyStages = List.of(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("stage.count", EQUALS, 2)
+        );
+        List<SearchCondition> lightParameter = List.of(
+                new SearchCondition("type", EQUALS, "light"),
+                new SearchCondition("stage.count", LIKE, "2")
+        );
+        AtomicBoolean closed = new AtomicBoolean();
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.streamByFilter(any(), anyInt()))
+                .thenReturn(rockets.stream().onClose(() -> closed.set(true)));
 
-        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+        assertEquals(Arrays.asList(rockets.get(3), null, rockets.get(3)),
+                worker.searchByConditionSets(List.of(stages, heavyStages, lightParameter)));
+        verify(mockRepository, times(1)).streamByFilter(eq(new Document()), anyInt());
+        verify(mockRepository, never()).findFirstByFilters(any());
+        assertTrue(closed.get());
     }
 
     @Test
-    void checkSatellite_satelliteName_EQUALS() {
-        SearchCondition condition = new SearchCondition("satellite.name", EQUALS, "Juno");
+    void searchByConditionSets_residualScanStopsWhenAllResolved() {
+        List<SearchCondition> spaceport = List.of(new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0"));
+        AtomicInteger consumed = new AtomicInteger();
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.streamByFilterWithSpaceports(any(), anyInt()))
+                .thenReturn(rockets.stream().peek(rocket -> consumed.incrementAndGet()));
 
-        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+        assertEquals(List.of(rockets.get(2)), worker.searchByConditionSets(List.of(spaceport)));
+        assertEquals(3, consumed.get());
     }
 
     @Test
-    void checkSatellite_satelliteName_LIKE() {
-        SearchCondition condition = new SearchCondition("satellite.name", LIKE, "Jun");
-
-        when(mockRepository.findAll()).thenReturn(rockets);
-
-        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
-    }
+    void metrics_scanRecordsCandidatesAndMatchPosition() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RocketComposerServiceWorker meteredWorker = new RocketComposerServiceWorker(mockRepository,
+                SearchPlanOptions.DEFAULT, new SearchMetrics(registry));
 
-    @Test
-    void checkSatellite_satelliteName_default() {
-        SearchCondition condition = new SearchCondition("satellite.name", LESSER_THAN, 214);
+        when(mockRepository.streamByFilter(any(), anyInt())).thenReturn(rockets.stream());
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        assertEquals(rockets.get(3), meteredWorker.searchByConditions(List.of(
+                new SearchCondition("stage.count", EQUALS, 2))));
 
-        assertNull(worker.searchByConditions(List.of(condition)));
+        assertEquals(1, registry.get(SearchMetrics.SEARCH_TIMER).tag("path", "scan").timer().count());
+        assertEquals(1, registry.get(SearchMetrics.CONDITIONS_COUNTER).tag("operator", "EQUALS").counter().count());
+        assertEquals(0, registry.get(SearchMetrics.CONDITIONS_COUNTER).tag("operator", "LIKE").counter().count());
+        assertEquals(4, registry.get(SearchMetrics.CANDIDATES_SUMMARY).summary().totalAmount());
+        assertEquals(4, registry.get(SearchMetrics.MATCH_POSITION_SUMMARY).summary().totalAmount());
+        assertEquals(3, registry.get(SearchMetrics.REJECTED_COUNTER).counter().count());
     }
 
     @Test
-    void checkSatellite_satelliteAssignment_NOT_EQUALS() {
-        SearchCondition condition = new SearchCondition("satellite.assignment",
-                NOT_EQUALS,
-                "far space exploration");
+    void metrics_pushedDownSearchIsTimed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RocketComposerServiceWorker meteredWorker = new RocketComposerServiceWorker(mockRepository,
+                SearchPlanOptions.DEFAULT, new SearchMetrics(registry));
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        when(mockRepository.findFirstByFilter(any())).thenReturn(Optional.empty());
 
-        assertEquals(rockets.get(2), worker.searchByConditions(List.of(condition)));
+        assertNull(meteredWorker.searchByConditions(List.of(
+                new SearchCondition("delta-V", GREATER_THAN, 10000))));
+
+        assertEquals(1, registry.get(SearchMetrics.SEARCH_TIMER).tag("path", "pushdown").timer().count());
+        assertEquals(1,
+                registry.get(SearchMetrics.CONDITIONS_COUNTER).tag("operator", "GREATER_THAN").counter().count());
+        assertEquals(0, registry.get(SearchMetrics.CANDIDATES_SUMMARY).summary().count());
     }
 
     @Test
-    void checkSatellite_satelliteAssignment_EQUALS() {
-        SearchCondition condition = new SearchCondition("satellite.assignment",
-                EQUALS,
-                "far space exploration");
-
-        when(mockRepository.findAll()).thenReturn(rockets);
+    void searchByConditions_rocketIdServedFromCache() {
+        Rocket lightOne = rockets.get(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RocketComposerServiceWorker cachedWorker = new RocketComposerServiceWorker(mockRepository,
+                SearchPlanOptions.DEFAULT, new SearchMetrics(registry),
+                RocketCache.create(10, Duration.ofMinutes(1), registry));
 
-        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
-    }
+        lightOne.clearChanges();
+        when(mockRepository.findById(lightOne.getId())).thenReturn(Optional.of(lightOne));
 
-    @Test
-    void checkSatellite_satelliteAssignment_LIKE() {
-        SearchCondition condition = new SearchCondition("satellite.assignment",
-                LIKE, "far space");
+        List<SearchCondition> matching = List.of(
+                new SearchCondition("id", EQUALS, lightOne.getId()),
+                new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1900));
+        List<SearchCondition> notMatching = List.of(
+                new SearchCondition("id", EQUALS, lightOne.getId()),
+                new SearchCondition("type", EQUALS, "heavy"));
 
-        when(mockRepository.findAll()).thenReturn(rockets);
+        assertEquals(lightOne, cachedWorker.searchByConditions(matching));
+        assertEquals(lightOne, cachedWorker.searchByConditions(matching));
+        assertNull(cachedWorker.searchByConditions(notMatching));
 
-        assertEquals(rockets.get(0), worker.searchByConditions(List.of(condition)));
+        verify(mockRepository, times(1)).findById(lightOne.getId());
+        verify(mockRepository, never()).findFirstByFilter(any());
+        assertEquals(3, registry.get(SearchMetrics.SEARCH_TIMER).tag("path", "cache").timer().count());
     }
 
     @Test
-    void checkSatellite_satelliteAssignment_default() {
-        SearchCondition condition = new SearchCondition("satellite.assignment", LESSER_THAN, 3);
-
-        when(mockRepository.findAll()).thenReturn(rockets);
+    void searchByConditions_answeredFromLoadedIndex() {
+        RocketIndex index = new RocketIndex();
+        index.load(rockets.iterator());
+        RocketComposerServiceWorker indexedWorker = new RocketComposerServiceWorker(mockRepository,
+                SearchPlanOptions.DEFAULT, new SearchMetrics(new SimpleMeterRegistry()), RocketCache.disabled(), index);
 
-        assertNull(worker.searchByConditions(List.of(condition)));
+        assertEquals(rockets.get(3), indexedWorker.searchByConditions(List.of(
+                new SearchCondition("stage.count", EQUALS, 2))));
+        assertEquals(Arrays.asList(rockets.get(2), null), indexedWorker.searchByConditionSets(List.of(
+                List.of(new SearchCondition("missionName", EQUALS, "Juno")),
+                List.of(new SearchCondition("delta-V", GREATER_THAN, 10000)))));
+        verifyNoInteractions(mockRepository);
     }
-}
\ No newline at end of file
+}
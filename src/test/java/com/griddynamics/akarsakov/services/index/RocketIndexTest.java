@@ -0,0 +1,310 @@
+package com.griddynamics.akarsakov.services.index;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class RocketIndexTest {
+
+    private final RocketIndex index = new RocketIndex();
+    private List<Rocket> rockets;
+
+    @BeforeEach
+    void init() {
+        rockets = List.of(
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "super-heavy"),
+                new Rocket(UUID.randomUUID(), "light")
+        );
+
+        rockets.get(0).setMissionName("GPS renew");
+        rockets.get(1).setMissionName("GPS renew");
+        rockets.get(2).setMissionName("Juno");
+
+        Satellite satellite = new Satellite(UUID.randomUUID());
+        satellite.setAssignment("far space exploration");
+        rockets.get(0).addSatellite(satellite);
+
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        juno.setAssignment("research of far space magnetic fields");
+        rockets.get(2).addSatellite(juno);
+
+        rockets.get(2).setSpaceport(new Spaceport(UUID.randomUUID(), 0.0, 15.3));
+
+        rockets.get(0).addParameter("delta-V", "2000");
+        rockets.get(1).addParameter("delta-V", "1700");
+        rockets.get(2).addParameter("delta-V", "4500");
+        rockets.get(2).addParameter("purpose", "study of Jupiter and its closest moons");
+        rockets.get(3).addParameter("delta-V", "900");
+        rockets.get(3).addParameter("Launch date", "2022-03-01T12:00:00.000001");
+        rockets.get(3).addParameter("stage.count", "2");
+
+        index.load(rockets.iterator());
+    }
+
+    private Rocket firstMatch(SearchCondition... conditions) {
+        SearchPlan plan = SearchPlan.compile(List.of(conditions));
+        Rocket expected = rockets.stream().filter(plan::matches).findFirst().orElse(null);
+        Rocket actual = index.findFirst(plan);
+        assertEquals(expected, actual, "Index and plan disagree on " + List.of(conditions));
+        return actual;
+    }
+
+    @Test
+    void notReadyBeforeLoad() {
+        RocketIndex empty = new RocketIndex();
+
+        assertFalse(empty.isReady());
+        assertFalse(empty.isTrackingChanges());
+        assertFalse(empty.canAnswer(SearchPlan.compile(List.of())));
+        assertTrue(index.isReady());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void findFirst_agreesWithPlan() {
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("id", EQUALS, rockets.get(3).getId())));
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId())));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("type", EQUALS, "light")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("type", NOT_EQUALS, "heavy")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("type", LIKE, "HEAV")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("type", EQUALS, List.of("light", "super-heavy"))));
+        assertNull(firstMatch(new SearchCondition("type", EQUALS, "orbital")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("missionName", LIKE, "gps")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("missionName", NOT_EQUALS, "GPS renew")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("spaceport", EQUALS,
+                rockets.get(2).getSpaceportId())));
+    }
+
+    @Test
+    void findFirst_parameters() {
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("delta-V", EQUALS, 1700)));
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("delta-V", NOT_EQUALS, 2000)));
+        assertNull(firstMatch(new SearchCondition("missing", NOT_EQUALS, 2000)));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("purpose", LIKE, "Jupiter")));
+        assertNull(firstMatch(new SearchCondition("delta-V", LESSER_THAN, -1.001)));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("delta-V", GREATER_THAN, 2000)));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1699.999)));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700.0001)));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("stage.count", EQUALS, 2)));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("Launch date", GREATER_THAN,
+                LocalDateTime.of(2022, 3, 1, 12, 0))));
+    }
+
+    @Test
+    void findFirst_satellites() {
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("satellite.name", EQUALS, "Juno")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("satellite.name", LIKE, "Jun")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("satellite.name", NOT_EQUALS, "Voyager 2")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("satellite.assignment", LIKE, "far space")));
+        assertNull(firstMatch(new SearchCondition("satellite.assignment", EQUALS, "near space")));
+    }
+
+    @Test
+    void findFirst_allConditions() {
+        assertEquals(rockets.get(1), firstMatch(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("delta-V", LESSER_THAN, 2000)
+        ));
+    }
+
+    @Test
+    void findFirst_combinedBitmapConditions() {
+        UUID spaceportId = rockets.get(2).getSpaceportId();
+
+        assertEquals(rockets.get(2), firstMatch(
+                new SearchCondition("type", NOT_EQUALS, "heavy"),
+                new SearchCondition("spaceport", EQUALS, spaceportId),
+                new SearchCondition("purpose", LIKE, "moons")));
+        assertNull(firstMatch(
+                new SearchCondition("type", EQUALS, List.of("heavy", "light")),
+                new SearchCondition("spaceport", EQUALS, spaceportId)));
+        assertNull(firstMatch(new SearchCondition("spaceport", NOT_EQUALS, spaceportId)));
+        assertEquals(rockets.get(3), firstMatch(
+                new SearchCondition("type", NOT_EQUALS, "heavy"),
+                new SearchCondition("stage.count", GREATER_THAN, 1)));
+    }
+
+    @Test
+    void findFirst_numericRanges() {
+        List<Rocket> fleet = new ArrayList<>(rockets);
+        for (int i = 0; i < 200; i++) {
+            Rocket rocket = new Rocket(UUID.randomUUID(), i % 2 == 0 ? "heavy" : "light");
+            rocket.addParameter("delta-V", Integer.toString((i * 37) % 200 - 100));
+            rocket.addParameter("payload", i % 3 == 0 ? "9007199254740993" : "0.1");
+            fleet.add(rocket);
+        }
+        rockets = fleet;
+        index.load(rockets.iterator());
+
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("delta-V", GREATER_THAN, 2000)));
+        assertNotNull(firstMatch(new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 99)));
+        assertNotNull(firstMatch(new SearchCondition("delta-V", LESSER_THAN, -99.5)));
+        assertNotNull(firstMatch(new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, -0.0)));
+        assertNotNull(firstMatch(
+                new SearchCondition("delta-V", GREATER_THAN, 10),
+                new SearchCondition("delta-V", LESSER_THAN, 12),
+                new SearchCondition("type", EQUALS, "light")));
+        assertNull(firstMatch(new SearchCondition("payload", GREATER_THAN, 9007199254740993L)));
+        assertNotNull(firstMatch(new SearchCondition("payload", GREATER_OR_EQUALS_THAN, 9007199254740993L)));
+        assertNotNull(firstMatch(new SearchCondition("payload", LESSER_THAN, 0.10000001)));
+    }
+
+    @Test
+    void findFirst_numericRangeAfterUpdate() {
+        SearchPlan fast = SearchPlan.compile(List.of(new SearchCondition("delta-V", GREATER_THAN, 4000)));
+        assertEquals(rockets.get(2), index.findFirst(fast));
+
+        Rocket slowed = new Rocket(rockets.get(2).getId(), "super-heavy");
+        slowed.addParameter("delta-V", "3000");
+        Rocket faster = new Rocket(UUID.randomUUID(), "light");
+        faster.addParameter("delta-V", "5000");
+        index.putAll(List.of(slowed, faster));
+
+        assertEquals(faster, index.findFirst(fast));
+    }
+
+    @Test
+    void put_movesRowBetweenBitmaps() {
+        Rocket moved = new Rocket(rockets.get(2).getId(), "light");
+        moved.setSpaceport(new Spaceport(UUID.randomUUID(), 10.0, 10.0));
+        index.put(moved);
+
+        assertNull(index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("spaceport", EQUALS, rockets.get(2).getSpaceportId())))));
+        assertNull(index.findFirst(SearchPlan.compile(List.of(new SearchCondition("purpose", LIKE, "Jupiter")))));
+        assertEquals(moved, index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("type", EQUALS, "light"),
+                new SearchCondition("spaceport", EQUALS, moved.getSpaceportId())))));
+    }
+
+    @Test
+    void put_updatesRowAndAppendsNewRockets() {
+        Rocket updated = new Rocket(rockets.get(0).getId(), "light");
+        updated.addParameter("delta-V", "100");
+        Rocket added = new Rocket(UUID.randomUUID(), "orbital");
+
+        index.putAll(List.of(updated, added));
+
+        SearchPlan light = SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "light")));
+        SearchPlan heavyDeltaV = SearchPlan.compile(List.of(new SearchCondition("delta-V", EQUALS, 2000)));
+        assertEquals(updated, index.findFirst(light));
+        assertNull(index.findFirst(heavyDeltaV));
+        assertEquals(added, index.findFirst(SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "orbital")))));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void findFirst_returnsCopies() {
+        SearchPlan light = SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "light")));
+        Rocket found = index.findFirst(light);
+        found.setMissionName("changed by a caller");
+        found.addParameter("delta-V", "1");
+
+        Rocket put = new Rocket(UUID.randomUUID(), "orbital");
+        index.put(put);
+        put.addParameter("delta-V", "1");
+
+        assertNotSame(found, index.findFirst(light));
+        assertNull(index.findFirst(light).getMissionName());
+        assertNull(index.findFirst(SearchPlan.compile(List.of(new SearchCondition("delta-V", EQUALS, 1)))));
+    }
+
+    @Test
+    void remove() {
+        index.remove(rockets.get(3).getId());
+
+        assertNull(index.findFirst(SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "light")))));
+        assertNull(index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("id", EQUALS, rockets.get(3).getId())))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void compact_dropsEmptyRowsInRowOrder() {
+        RocketColumns columns = new RocketColumns();
+        rockets.forEach(columns::put);
+        columns.remove(rockets.get(0).getId());
+        columns.remove(rockets.get(2).getId());
+
+        RocketColumns compacted = columns.compact();
+
+        assertEquals(2, columns.emptyRows());
+        assertEquals(0, compacted.emptyRows());
+        assertEquals(List.of(rockets.get(1), rockets.get(3)), Arrays.asList(compacted.rockets).subList(0, 2));
+        assertEquals(Dictionary.ABSENT, compacted.types.codeOf("super-heavy"));
+    }
+
+    @Test
+    void removeAll_keepsRowOrderOnceCompacted() {
+        index.removeAll(List.of(rockets.get(0).getId(), rockets.get(1).getId(), rockets.get(3).getId()));
+        Rocket added = new Rocket(UUID.randomUUID(), "heavy");
+        index.put(added);
+
+        assertEquals(2, index.size());
+        assertEquals(rockets.get(2), index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("type", LIKE, "heav")))));
+        assertEquals(added, index.findFirst(SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "heavy")))));
+    }
+
+    // The changes arrive after the read has passed the rockets they touch
+    @Test
+    void load_replaysChangesMadeWhileReading() {
+        Rocket updated = new Rocket(rockets.get(0).getId(), "orbital");
+        Rocket added = new Rocket(UUID.randomUUID(), "suborbital");
+        Iterator<Rocket> source = rockets.iterator();
+        Iterator<Rocket> reading = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Rocket next() {
+                Rocket rocket = source.next();
+                if (rocket == rockets.get(3)) {
+                    assertTrue(index.isTrackingChanges());
+                    index.put(updated);
+                    index.put(added);
+                    index.remove(rockets.get(1).getId());
+                }
+                return rocket;
+            }
+        };
+
+        index.load(reading);
+
+        assertEquals(4, index.size());
+        assertEquals("orbital", index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("id", EQUALS, rockets.get(0).getId())))).getType());
+        assertEquals(added, index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("type", EQUALS, "suborbital")))));
+        assertNull(index.findFirst(SearchPlan.compile(List.of(
+                new SearchCondition("id", EQUALS, rockets.get(1).getId())))));
+    }
+
+    @Test
+    void canAnswer_notForLoadedSpaceports() {
+        SearchPlan spaceport = SearchPlan.compile(List.of(new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0")));
+
+        assertFalse(index.canAnswer(spaceport));
+    }
+}
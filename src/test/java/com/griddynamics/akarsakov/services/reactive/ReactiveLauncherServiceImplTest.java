@@ -0,0 +1,61 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.reactive.ReactiveRocketRepository;
+import com.griddynamics.akarsakov.services.LauncherServiceImpl;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("unitTest")
+class ReactiveLauncherServiceImplTest {
+
+    private final ChanceCalculator calculatorMock = Mockito.mock(ChanceCalculator.class);
+    private final ReactiveRocketRepository repositoryMock = Mockito.mock(ReactiveRocketRepository.class);
+    private final ReactiveLauncherServiceImpl service =
+            new ReactiveLauncherServiceImpl(new LauncherServiceImpl(calculatorMock), repositoryMock);
+
+    @Test
+    void launchSuccessful() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "light");
+        Mockito.doReturn(11).when(calculatorMock).rollForLaunchSuccess();
+        when(repositoryMock.save(rocket)).thenReturn(Mono.just(rocket));
+
+        StepVerifier.create(service.launch(rocket, new Spaceport(UUID.randomUUID(), 20.0, 70.0)))
+                .expectNext(true)
+                .verifyComplete();
+        assertEquals("true", rocket.getParameters().get("Success"));
+        verify(repositoryMock).save(rocket);
+    }
+
+    @Test
+    void launchIsDeferredUntilSubscription() {
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+
+        service.launch(rocket, new Spaceport(UUID.randomUUID(), 25.0, 90.0));
+
+        verifyNoInteractions(calculatorMock, repositoryMock);
+        assertFalse(rocket.getParameters().containsKey("Success"));
+    }
+
+    @Test
+    void deliverRocketToSpaceport() {
+        Spaceport port = new Spaceport(UUID.randomUUID(), 25.0, 90.0);
+        Rocket rocket = new Rocket(UUID.randomUUID(), "heavy");
+        when(repositoryMock.save(rocket)).thenReturn(Mono.just(rocket));
+
+        StepVerifier.create(service.deliverRocketToSpaceport(rocket, port))
+                .expectNext(rocket)
+                .verifyComplete();
+        assertEquals(port, rocket.getSpaceport());
+    }
+}
@@ -0,0 +1,105 @@
+package com.griddynamics.akarsakov.services.reactive;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.repositories.reactive.ReactiveRocketRepository;
+import com.griddynamics.akarsakov.services.search.SearchCondition;
+import com.griddynamics.akarsakov.services.search.SearchPlan;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("unitTest")
+class ReactiveRocketComposerServiceWorkerTest {
+
+    private final ReactiveRocketRepository mockRepository = Mockito.mock(ReactiveRocketRepository.class);
+    private final ReactiveRocketComposerServiceWorker worker = new ReactiveRocketComposerServiceWorker(mockRepository);
+
+    private static List<Rocket> rockets;
+
+    @BeforeAll
+    static void init() {
+        rockets = List.of(
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "super-heavy"),
+                new Rocket(UUID.randomUUID(), "light")
+        );
+
+        rockets.get(1).setSpaceport(new Spaceport(UUID.randomUUID(), 0.0, 15.3));
+        rockets.get(2).addParameter("stage.count", "2");
+    }
+
+    @Test
+    void searchByConditions_nullConditionsList() {
+        StepVerifier.create(worker.searchByConditions(null)).verifyComplete();
+        verifyNoInteractions(mockRepository);
+    }
+
+    @Test
+    void searchByConditions_pushedDownConditionsUseSingleQuery() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("type", EQUALS, "light"));
+
+        when(mockRepository.findFirstByFilter(SearchPlan.compile(conditions).filter()))
+                .thenReturn(Mono.just(rockets.get(2)));
+
+        StepVerifier.create(worker.searchByConditions(conditions))
+                .expectNext(rockets.get(2))
+                .verifyComplete();
+        verify(mockRepository, never()).streamByFilter(any(), anyInt());
+    }
+
+    @Test
+    void searchByConditions_residualConditionCancelsAfterFirstMatch() {
+        SearchCondition condition = new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0");
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        when(mockRepository.streamByFilter(eq(new Document("spaceport", new Document("$exists", true))), anyInt()))
+                .thenReturn(Flux.fromIterable(rockets)
+                        .doOnCancel(() -> cancelled.set(true)));
+
+        StepVerifier.create(worker.searchByConditions(List.of(condition)))
+                .expectNext(rockets.get(1))
+                .verifyComplete();
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void searchByConditions_nonNumericValueIsSignalledAsError() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("delta-V", LESSER_THAN, "NaN"));
+
+        StepVerifier.create(worker.searchByConditions(conditions))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamByConditions_respectsDemand() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("stage.count", NOT_EQUALS, "3"));
+        List<Rocket> candidates = new ArrayList<>(rockets);
+        candidates.add(rockets.get(2));
+
+        when(mockRepository.streamByFilter(any(), anyInt())).thenReturn(Flux.fromIterable(candidates));
+
+        StepVerifier.create(worker.streamByConditions(conditions), 1)
+                .expectNext(rockets.get(2))
+                .thenRequest(1)
+                .expectNext(rockets.get(2))
+                .verifyComplete();
+    }
+}
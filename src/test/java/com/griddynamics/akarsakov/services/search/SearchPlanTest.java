@@ -0,0 +1,305 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class SearchPlanTest {
+
+    private static List<Rocket> rockets;
+
+    @BeforeAll
+    static void init() {
+        rockets = List.of(
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "heavy"),
+                new Rocket(UUID.randomUUID(), "super-heavy"),
+                new Rocket(UUID.randomUUID(), "light")
+        );
+
+        rockets.get(0).setMissionName("GPS renew");
+        rockets.get(1).setMissionName("GPS renew");
+        rockets.get(2).setMissionName("Juno");
+
+        Satellite satellite = new Satellite(UUID.randomUUID());
+        satellite.setAssignment("far space exploration");
+        rockets.get(0).addSatellite(satellite);
+
+        Satellite juno = new Satellite(UUID.randomUUID());
+        juno.setName("Juno");
+        juno.setAssignment("research of far space magnetic fields");
+        rockets.get(2).addSatellite(juno);
+
+        rockets.get(2).setSpaceport(new Spaceport(UUID.randomUUID(), 0.0, 15.3));
+
+        rockets.get(0).addParameter("delta-V", "2000");
+        rockets.get(1).addParameter("delta-V", "1700");
+        rockets.get(2).addParameter("delta-V", "4500");
+        rockets.get(2).addParameter("purpose", "study of Jupiter and its closest moons");
+        rockets.get(3).addParameter("delta-V", "900");
+        rockets.get(3).addParameter("Fuel", "80%");
+        rockets.get(3).addParameter("Launch date", "2022-03-01T12:00:00.000001");
+    }
+
+    private static Rocket firstMatch(SearchCondition... conditions) {
+        return firstMatch(rockets, conditions);
+    }
+
+    private static Rocket firstMatch(List<Rocket> candidates, SearchCondition... conditions) {
+        SearchPlan plan = SearchPlan.compile(List.of(conditions));
+        return candidates.stream().filter(plan::matches).findFirst().orElse(null);
+    }
+
+    @Test
+    void matches_nullRocket() {
+        assertFalse(SearchPlan.compile(List.of()).matches(null));
+    }
+
+    @Test
+    void matches_emptyPlan() {
+        assertTrue(SearchPlan.compile(null).matches(rockets.get(3)));
+    }
+
+    @Test
+    void matches_rocketId() {
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("id", EQUALS, rockets.get(3).getId())));
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId())));
+    }
+
+    @Test
+    void matches_type() {
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("type", EQUALS, "light")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("type", NOT_EQUALS, "heavy")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("type", LIKE, "HEAV")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("type", EQUALS, List.of("light", "super-heavy"))));
+        assertNull(firstMatch(new SearchCondition("type", LIKE, "heav.*")));
+    }
+
+    @Test
+    void matches_missionName() {
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("missionName", EQUALS, "Juno")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("missionName", LIKE, "gps")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("missionName", NOT_EQUALS, "GPS renew")));
+    }
+
+    @Test
+    void matches_spaceport() {
+        SearchPlan plan = SearchPlan.compile(List.of(new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0")));
+
+        assertTrue(plan.hasResidualConditions());
+        assertTrue(plan.matchesResidual(rockets.get(2)));
+        assertFalse(plan.matchesResidual(rockets.get(0)));
+    }
+
+    @Test
+    void matches_spaceportReference() {
+        UUID spaceportId = rockets.get(2).getSpaceportId();
+        SearchPlan equals = SearchPlan.compile(List.of(new SearchCondition("spaceport", EQUALS, spaceportId)));
+        SearchPlan notEquals = SearchPlan.compile(List.of(new SearchCondition("spaceport", NOT_EQUALS, spaceportId)));
+
+        assertFalse(equals.hasResidualConditions());
+        assertTrue(equals.matches(rockets.get(2)));
+        assertFalse(equals.matches(rockets.get(0)));
+        assertFalse(notEquals.matches(rockets.get(2)));
+        assertFalse(notEquals.matches(rockets.get(0)));
+    }
+
+    @Test
+    void matches_parameter_EQUALS() {
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("delta-V", EQUALS, 1700)));
+    }
+
+    @Test
+    void matches_parameter_NOT_EQUALS() {
+        assertEquals(rockets.get(1), firstMatch(new SearchCondition("delta-V", NOT_EQUALS, 2000)));
+        assertNull(firstMatch(new SearchCondition("missing", NOT_EQUALS, 2000)));
+    }
+
+    @Test
+    void matches_parameter_LIKE() {
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("purpose", LIKE, "Jupiter")));
+    }
+
+    @Test
+    void matches_parameter_numeric() {
+        assertNull(firstMatch(new SearchCondition("delta-V", LESSER_THAN, -1.001)));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("delta-V", GREATER_THAN, 2000)));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1699.999)));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700.0001)));
+    }
+
+    @Test
+    void matches_parameter_numericConditionOnNonNumericParameter() {
+        assertNull(firstMatch(new SearchCondition("purpose", GREATER_THAN, 0)));
+    }
+
+    @Test
+    void matches_parameter_percentage() {
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("Fuel", GREATER_THAN, 50)));
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("Fuel", EQUALS, "80%")));
+    }
+
+    @Test
+    void matches_parameter_date() {
+        LocalDateTime launchDate = LocalDateTime.of(2022, 3, 1, 12, 0);
+
+        assertEquals(rockets.get(3), firstMatch(new SearchCondition("Launch date", GREATER_THAN, launchDate)));
+        assertNull(firstMatch(new SearchCondition("Launch date", LESSER_OR_EQUALS_THAN, launchDate)));
+    }
+
+    @Test
+    void matches_satelliteName() {
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("satellite.name", NOT_EQUALS, "Voyager 2")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("satellite.name", EQUALS, "Juno")));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("satellite.name", LIKE, "Jun")));
+        assertNull(firstMatch(new SearchCondition("satellite.name", LESSER_THAN, 214)));
+    }
+
+    @Test
+    void matches_satelliteAssignment() {
+        assertEquals(rockets.get(2),
+                firstMatch(new SearchCondition("satellite.assignment", NOT_EQUALS, "far space exploration")));
+        assertEquals(rockets.get(0),
+                firstMatch(new SearchCondition("satellite.assignment", EQUALS, "far space exploration")));
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("satellite.assignment", LIKE, "far space")));
+        assertNull(firstMatch(new SearchCondition("satellite.assignment", LESSER_THAN, 3)));
+    }
+
+    @Test
+    void matches_allConditions() {
+        assertEquals(rockets.get(1), firstMatch(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("delta-V", LESSER_THAN, 2000)
+        ));
+    }
+
+    @Test
+    void matches_rocketIdNotEqualsWithParameter() {
+        assertEquals(rockets.get(2), firstMatch(
+                new SearchCondition("id", NOT_EQUALS, UUID.randomUUID()),
+                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2200)
+        ));
+    }
+
+    @Test
+    void matches_rocketIdEqualsWithParameter() {
+        assertEquals(rockets.get(3), firstMatch(
+                new SearchCondition("id", EQUALS, rockets.get(3).getId()),
+                new SearchCondition("delta-V", LESSER_OR_EQUALS_THAN, 1900)
+        ));
+    }
+
+    @Test
+    void matches_rocketIdNotEqualsWithType() {
+        assertEquals(rockets.get(3), firstMatch(
+                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
+                new SearchCondition("type", EQUALS, "light")
+        ));
+    }
+
+    @Test
+    void matches_rocketIdNotEqualsWithMissionName() {
+        assertEquals(rockets.get(2), firstMatch(
+                new SearchCondition("id", NOT_EQUALS, rockets.get(0).getId()),
+                new SearchCondition("missionName", EQUALS, "Juno")
+        ));
+    }
+
+    @Test
+    void matches_typeAndMissionName() {
+        assertEquals(rockets.get(0), firstMatch(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("missionName", LIKE, "gps")
+        ));
+    }
+
+    @Test
+    void matches_unknownAttribute() {
+        assertNull(firstMatch(new SearchCondition("attrName", EQUALS, "1")));
+        assertNull(firstMatch(List.of(rockets.get(0), rockets.get(2)),
+                new SearchCondition("rocketParam", NOT_EQUALS, "some value")));
+    }
+
+    @Test
+    void matches_rocketIdWithFailingSatelliteCondition() {
+        assertNull(firstMatch(
+                new SearchCondition("id", EQUALS, rockets.get(0).getId()),
+                new SearchCondition("satellite.assignment", EQUALS, "navigation probe")
+        ));
+    }
+
+    @Test
+    void matches_parameter_NOT_EQUALS_singleCandidate() {
+        assertNull(firstMatch(List.of(rockets.get(3)), new SearchCondition("delta-V", NOT_EQUALS, 900)));
+        assertEquals(rockets.get(3),
+                firstMatch(List.of(rockets.get(3)), new SearchCondition("delta-V", NOT_EQUALS, 700)));
+    }
+
+    @Test
+    void matches_parameter_GREATER_OR_EQUALS_THAN_firstOfSeveral() {
+        assertEquals(rockets.get(0), firstMatch(new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 2000)));
+        assertEquals(rockets.get(2), firstMatch(new SearchCondition("delta-V", GREATER_THAN, 2500)));
+    }
+
+    @Test
+    void compile_numericConditionWithNonNumericOperand() {
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> SearchPlan.compile(List.of(new SearchCondition("delta-V", LESSER_THAN, "NaN"))));
+    }
+
+    // The scan over all rockets used to throw here; a pushed-down query cannot, so such rockets are skipped
+    @Test
+    void matches_numericConditionSkipsNonNumericParameterValue() {
+        Rocket unknownDeltaV = new Rocket(UUID.randomUUID(), "light");
+        unknownDeltaV.addParameter("delta-V", "unknown");
+
+        SearchPlan plan = SearchPlan.compile(List.of(new SearchCondition("delta-V", LESSER_THAN, 1000)));
+
+        assertFalse(plan.matches(unknownDeltaV));
+        assertEquals(rockets.get(3), firstMatch(List.of(unknownDeltaV, rockets.get(3)),
+                new SearchCondition("delta-V", LESSER_THAN, 1000)));
+    }
+
+    @Test
+    void compile_planIsReusable() {
+        SearchPlan plan = SearchPlan.compile(List.of(new SearchCondition("delta-V", GREATER_THAN, 1000)));
+
+        assertTrue(plan.matches(rockets.get(0)));
+        assertFalse(plan.matches(rockets.get(3)));
+        assertTrue(plan.matches(rockets.get(2)));
+    }
+
+    @Test
+    void anyOf() {
+        SearchPlan heavy = SearchPlan.compile(List.of(new SearchCondition("type", EQUALS, "heavy")));
+        SearchPlan juno = SearchPlan.compile(List.of(new SearchCondition("missionName", EQUALS, "Juno")));
+
+        assertEquals(new Document("$or", List.of(heavy.filter(), juno.filter())),
+                SearchPlan.anyOf(List.of(heavy, juno, heavy)));
+        assertEquals(heavy.filter(), SearchPlan.anyOf(List.of(heavy)));
+        assertEquals(new Document(), SearchPlan.anyOf(List.of(heavy, SearchPlan.compile(List.of()))));
+    }
+
+    @Test
+    void filterSelectivity() {
+        SearchPlan heavyJuno = SearchPlan.compile(List.of(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("missionName", LIKE, "juno"),
+                new SearchCondition("stage.count", EQUALS, 2)));
+
+        assertEquals(0.1 * 0.25, heavyJuno.filterSelectivity(), 1e-9);
+        assertEquals(1.0, SearchPlan.compile(List.of()).filterSelectivity());
+    }
+}
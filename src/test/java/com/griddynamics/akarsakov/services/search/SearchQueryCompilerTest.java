@@ -0,0 +1,265 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class SearchQueryCompilerTest {
+
+    @Test
+    void compile_nullConditions() {
+        SearchPlan query = SearchPlan.compile(null);
+
+        assertEquals(new Document(), query.filter());
+        assertFalse(query.hasResidualConditions());
+    }
+
+    @Test
+    void compile_nullConditionIsSkipped() {
+        List<SearchCondition> conditions = new ArrayList<>();
+        conditions.add(null);
+
+        assertEquals(new Document(), SearchPlan.compile(conditions).filter());
+    }
+
+    @Test
+    void compile_rocketId_EQUALS() {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(new Document("_id", id),
+                SearchPlan.compile(List.of(new SearchCondition("id", EQUALS, id))).filter());
+    }
+
+    @Test
+    void compile_rocketId_NOT_EQUALS() {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(new Document("_id", new Document("$ne", id)),
+                SearchPlan.compile(List.of(new SearchCondition("ID", NOT_EQUALS, id))).filter());
+    }
+
+    @Test
+    void compile_rocketId_nullValueIsIgnored() {
+        assertEquals(new Document(),
+                SearchPlan.compile(List.of(new SearchCondition("id", LIKE, null))).filter());
+    }
+
+    @Test
+    void compile_rocketId_unsupportedCondition() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("id", GREATER_THAN, UUID.randomUUID()));
+
+        assertThrows(IllegalArgumentException.class, () -> SearchPlan.compile(conditions));
+    }
+
+    @Test
+    void compile_typeAndMissionName() {
+        SearchPlan query = SearchPlan.compile(List.of(
+                new SearchCondition("type", EQUALS, "heavy"),
+                new SearchCondition("missionName", LIKE, "gps")
+        ));
+
+        Document expected = new Document("$and", List.of(
+                new Document("type", new Document("$eq", "heavy")),
+                new Document("missionName", new Document("$regex", Pattern.quote("gps")).append("$options", "i"))
+        ));
+
+        assertEquals(expected, query.filter());
+        assertFalse(query.hasResidualConditions());
+    }
+
+    @Test
+    void compile_spaceportIsResidual() {
+        SearchCondition condition = new SearchCondition("spaceport", LIKE, "\"longitude\" : 0.0");
+        SearchPlan query = SearchPlan.compile(List.of(condition));
+
+        assertEquals(new Document("spaceport", new Document("$exists", true)), query.filter());
+        assertEquals(List.of(condition), query.residualConditions());
+    }
+
+    @Test
+    void compile_spaceport_EQUALS_byReferenceId() {
+        UUID spaceportId = UUID.randomUUID();
+
+        assertEquals(new Document("spaceport.$id", spaceportId),
+                SearchPlan.compile(List.of(new SearchCondition("spaceport", EQUALS, spaceportId))).filter());
+        assertEquals(new Document("spaceport.$id", spaceportId),
+                SearchPlan.compile(List.of(new SearchCondition("spaceport", EQUALS,
+                        new Spaceport(spaceportId, 0.0, 15.3)))).filter());
+        assertEquals(new Document("spaceport.$id", spaceportId),
+                SearchPlan.compile(List.of(new SearchCondition("spaceport", EQUALS, spaceportId.toString())))
+                        .filter());
+    }
+
+    @Test
+    void compile_spaceport_NOT_EQUALS_byReferenceIds() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        SearchPlan query = SearchPlan.compile(List.of(
+                new SearchCondition("spaceport", NOT_EQUALS, List.of(first, second))));
+
+        assertEquals(new Document("spaceport.$id",
+                        new Document("$exists", true).append("$nin", List.of(first, second))),
+                query.filter());
+        assertFalse(query.hasResidualConditions());
+    }
+
+    @Test
+    void compile_satelliteName_EQUALS() {
+        assertEquals(new Document("satellites", new Document("$elemMatch", new Document("name", "Juno"))),
+                SearchPlan.compile(List.of(new SearchCondition("satellite.name", EQUALS, "Juno")))
+                        .filter());
+    }
+
+    @Test
+    void compile_satelliteAssignment_NOT_EQUALS() {
+        Document expected = new Document("satellites",
+                new Document("$elemMatch", new Document("assignment", new Document("$ne", "navigation"))));
+
+        assertEquals(expected, SearchPlan.compile(List.of(
+                new SearchCondition("satellite.assignment", NOT_EQUALS, "navigation"))).filter());
+    }
+
+    @Test
+    void compile_satelliteName_LIKE() {
+        assertEquals(new Document("satellites.name", new Document("$regex", Pattern.quote("Ju.no"))),
+                SearchPlan.compile(List.of(new SearchCondition("satellite.name", LIKE, "Ju.no")))
+                        .filter());
+    }
+
+    @Test
+    void compile_satelliteName_numericConditionMatchesNothing() {
+        assertEquals(new Document("_id", new Document("$in", List.of())),
+                SearchPlan.compile(List.of(new SearchCondition("satellite.name", LESSER_THAN, 3)))
+                        .filter());
+    }
+
+    @Test
+    void compile_parameter_EQUALS() {
+        assertEquals(new Document("parameters.delta-V", "1500"),
+                SearchPlan.compile(List.of(new SearchCondition("delta-V", EQUALS, 1500))).filter());
+    }
+
+    @Test
+    void compile_parameter_NOT_EQUALS() {
+        assertEquals(new Document("parameters.delta-V", new Document("$exists", true).append("$ne", "700")),
+                SearchPlan.compile(List.of(new SearchCondition("delta-V", NOT_EQUALS, 700))).filter());
+    }
+
+    @Test
+    void compile_parameter_LIKE() {
+        assertEquals(new Document("parameters.purpose", new Document("$regex", Pattern.quote("Jupiter"))),
+                SearchPlan.compile(List.of(new SearchCondition("purpose", LIKE, "Jupiter"))).filter());
+    }
+
+    @Test
+    void compile_parameter_GREATER_OR_EQUALS_THAN() {
+        Document expected = new Document("typedParameters.delta-V",
+                new Document("$gte", new Decimal128(new BigDecimal("1700.0001"))));
+
+        assertEquals(expected, SearchPlan.compile(List.of(
+                new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700.0001))).filter());
+    }
+
+    @Test
+    void compile_parameter_LESSER_THAN_date() {
+        LocalDateTime launchDate = LocalDateTime.of(2022, 3, 1, 12, 0);
+        Document expected = new Document("typedParameters.Launch date",
+                new Document("$lt", Date.from(launchDate.toInstant(ZoneOffset.UTC))));
+
+        assertEquals(expected, SearchPlan.compile(List.of(
+                new SearchCondition("Launch date", LESSER_THAN, launchDate))).filter());
+    }
+
+    @Test
+    void compile_parameter_rangeWithoutTypedParameters() {
+        SearchCondition condition = new SearchCondition("delta-V", GREATER_OR_EQUALS_THAN, 1700);
+        SearchPlan query = SearchPlan.compile(List.of(condition),
+                new SearchPlanOptions(false, false, SelectivityEstimator.HEURISTIC));
+
+        assertEquals(new Document("parameters.delta-V", new Document("$exists", true)), query.filter());
+        assertEquals(List.of(condition), query.residualConditions());
+    }
+
+    @Test
+    void compile_parameter_operandBeyondDecimal128() {
+        for (String operand : List.of("1.0000000000000000000000000000000001", "1E+7000", "-1E-7000")) {
+            SearchCondition condition = new SearchCondition("delta-V", LESSER_THAN, operand);
+            SearchPlan query = SearchPlan.compile(List.of(condition));
+
+            assertEquals(new Document("parameters.delta-V", new Document("$exists", true)), query.filter());
+            assertEquals(List.of(condition), query.residualConditions());
+        }
+    }
+
+    @Test
+    void compile_parameter_numericConditionWithNonNumericValue() {
+        List<SearchCondition> conditions = List.of(new SearchCondition("delta-V", LESSER_THAN, "NaN"));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> SearchPlan.compile(conditions));
+    }
+
+    @Test
+    void compile_dottedParameterIsResidual() {
+        SearchCondition condition = new SearchCondition("stage.count", EQUALS, 2);
+        SearchPlan query = SearchPlan.compile(List.of(condition));
+
+        assertEquals(new Document(), query.filter());
+        assertEquals(List.of(condition), query.residualConditions());
+    }
+
+    @Test
+    void compile_missionName_LIKE_withTrigramIndex() {
+        SearchPlan query = SearchPlan.compile(List.of(new SearchCondition("missionName", LIKE, "GPSa")),
+                new SearchPlanOptions(true));
+
+        Document expected = new Document("missionName",
+                new Document("$regex", Pattern.quote("GPSa")).append("$options", "i"))
+                .append("searchGrams.missionName", new Document("$all", List.of("gps", "psa")));
+
+        assertEquals(expected, query.filter());
+    }
+
+    @Test
+    void compile_missionName_LIKE_tooShortForTrigramIndex() {
+        SearchPlan query = SearchPlan.compile(List.of(new SearchCondition("missionName", LIKE, "gp")),
+                new SearchPlanOptions(true));
+
+        assertEquals(new Document("missionName", new Document("$regex", Pattern.quote("gp")).append("$options", "i")),
+                query.filter());
+    }
+
+    @Test
+    void compile_satelliteName_LIKE_withTrigramIndex() {
+        SearchPlan query = SearchPlan.compile(List.of(new SearchCondition("satellite.name", LIKE, "Star")),
+                new SearchPlanOptions(true));
+
+        Document expected = new Document("satellites.name", new Document("$regex", Pattern.quote("Star")))
+                .append("searchGrams.satelliteName", new Document("$all", List.of("sta", "tar")));
+
+        assertEquals(expected, query.filter());
+    }
+
+    @Test
+    void compile_type_LIKE_ignoresTrigramIndex() {
+        SearchPlan query = SearchPlan.compile(List.of(new SearchCondition("type", LIKE, "heavy")),
+                new SearchPlanOptions(true));
+
+        assertEquals(new Document("type", new Document("$regex", Pattern.quote("heavy")).append("$options", "i")),
+                query.filter());
+    }
+}
@@ -0,0 +1,104 @@
+package com.griddynamics.akarsakov.services.search;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Satellite;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class SearchStatisticsTest {
+
+    private static Spaceport baikonur;
+    private static SearchStatistics statistics;
+
+    @BeforeAll
+    static void init() {
+        baikonur = new Spaceport(UUID.randomUUID(), 63.3, 45.9);
+        List<Rocket> sample = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Rocket rocket = new Rocket(UUID.randomUUID(), i < 90 ? "heavy" : "light");
+            rocket.setMissionName(i % 10 == 0 ? "Juno" : "GPS renew " + i);
+            rocket.addParameter("delta-V", Integer.toString(i * 10));
+            if (i < 5) {
+                rocket.setSpaceport(baikonur);
+                Satellite satellite = new Satellite(UUID.randomUUID());
+                satellite.setName("Navstar");
+                rocket.addSatellite(satellite);
+            }
+            sample.add(rocket);
+        }
+        statistics = SearchStatistics.of(sample);
+    }
+
+    @Test
+    void selectivity_textFields() {
+        assertEquals(0.9, statistics.selectivity(new SearchCondition("type", EQUALS, "heavy")), 1e-9);
+        assertEquals(0.1, statistics.selectivity(new SearchCondition("type", NOT_EQUALS, "heavy")), 1e-9);
+        assertEquals(1.0, statistics.selectivity(new SearchCondition("type", EQUALS, List.of("heavy", "light"))), 1e-9);
+        assertEquals(0.1, statistics.selectivity(new SearchCondition("missionName", EQUALS, "Juno")), 1e-9);
+        assertEquals(0.9, statistics.selectivity(new SearchCondition("missionName", LIKE, "gps")), 1e-9);
+    }
+
+    @Test
+    void selectivity_unseenValuesAreRarest() {
+        double unseen = statistics.selectivity(new SearchCondition("type", EQUALS, "orbital"));
+
+        assertTrue(unseen > 0 && unseen < 0.01);
+        assertEquals(unseen, statistics.selectivity(new SearchCondition("id", EQUALS, UUID.randomUUID())), 1e-9);
+        assertEquals(unseen, statistics.selectivity(new SearchCondition("missing", EQUALS, 1)), 1e-9);
+        assertEquals(unseen, statistics.selectivity(new SearchCondition("type", LIKE, List.of())), 1e-9);
+    }
+
+    @Test
+    void selectivity_spaceportsAndSatellites() {
+        assertEquals(0.05, statistics.selectivity(new SearchCondition("spaceport", EQUALS, baikonur.getId())), 1e-9);
+        assertEquals(0.05, statistics.selectivity(new SearchCondition("satellite.name", LIKE, "nav")), 1e-9);
+    }
+
+    @Test
+    void selectivity_numericHistogram() {
+        assertEquals(0.25, statistics.selectivity(new SearchCondition("delta-V", LESSER_THAN, 247.5)), 0.02);
+        assertEquals(0.75, statistics.selectivity(new SearchCondition("delta-V", GREATER_THAN, 247.5)), 0.02);
+        assertTrue(statistics.selectivity(new SearchCondition("delta-V", GREATER_THAN, 5000)) < 0.01);
+        assertEquals(0.01, statistics.selectivity(new SearchCondition("delta-V", EQUALS, 120)), 1e-9);
+    }
+
+    @Test
+    void selectivity_emptySampleFallsBackToHeuristic() {
+        SearchCondition condition = new SearchCondition("type", EQUALS, "heavy");
+
+        assertEquals(SelectivityEstimator.HEURISTIC.selectivity(condition),
+                SearchStatistics.of(List.of()).selectivity(condition));
+    }
+
+    @Test
+    void compile_runsSelectiveMatchersFirst() {
+        SearchCondition slow = new SearchCondition("delta-V", LESSER_THAN, 900);
+        SearchCondition fast = new SearchCondition("delta-V", GREATER_THAN, 850);
+        SearchPlan plan = SearchPlan.compile(List.of(slow, fast), new SearchPlanOptions(false, false, statistics));
+
+        assertEquals(List.of(fast, slow), plan.residualConditions());
+        assertEquals(List.of(slow, fast), plan.conditions());
+    }
+
+    @Test
+    void compile_keepsCallerOrderOfMongoClauses() {
+        SearchCondition heavy = new SearchCondition("type", EQUALS, "heavy");
+        SearchCondition juno = new SearchCondition("missionName", EQUALS, "Juno");
+        SearchPlan plan = SearchPlan.compile(List.of(heavy, juno), new SearchPlanOptions(false, statistics));
+
+        assertEquals(new Document("$and", List.of(
+                new Document("type", new Document("$eq", "heavy")),
+                new Document("missionName", new Document("$eq", "Juno")))), plan.filter());
+    }
+}
@@ -0,0 +1,104 @@
+package com.griddynamics.akarsakov.services.simulation;
+
+import com.griddynamics.akarsakov.entities.Rocket;
+import com.griddynamics.akarsakov.entities.Spaceport;
+import com.griddynamics.akarsakov.services.LaunchOptions;
+import com.griddynamics.akarsakov.services.LaunchRequest;
+import com.griddynamics.akarsakov.utils.ChanceCalculator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class LaunchSimulationServiceImplTest {
+
+    private final LaunchSimulationServiceImpl service =
+            new LaunchSimulationServiceImpl(new ChanceCalculator(), LaunchOptions.DEFAULT);
+
+    private final Spaceport baikonur = new Spaceport(UUID.randomUUID(), 63.3, 45.9);
+    private final Spaceport kourou = new Spaceport(UUID.randomUUID(), -52.7, 5.2);
+
+    private List<LaunchRequest> requests() {
+        return List.of(
+                new LaunchRequest(new Rocket(UUID.randomUUID(), "light"), baikonur),
+                new LaunchRequest(new Rocket(UUID.randomUUID(), "heavy"), baikonur),
+                new LaunchRequest(new Rocket(UUID.randomUUID(), "heavy"), kourou)
+        );
+    }
+
+    @Test
+    void simulate_statisticsPerSpaceportAndRocketType() {
+        LaunchSimulationReport report = service.simulate(requests(), 100_000);
+
+        assertEquals(300_000, report.total().launches());
+        assertEquals(200_000, report.bySpaceport().get(baikonur.getId()).launches());
+        assertEquals(100_000, report.bySpaceport().get(kourou.getId()).launches());
+        assertEquals(100_000, report.byRocketType().get("light").launches());
+        assertEquals(200_000, report.byRocketType().get("heavy").launches());
+
+        long spaceportSuccesses = report.bySpaceport().values().stream().mapToLong(LaunchStatistics::successes).sum();
+        long typeSuccesses = report.byRocketType().values().stream().mapToLong(LaunchStatistics::successes).sum();
+        assertEquals(report.total().successes(), spaceportSuccesses);
+        assertEquals(report.total().successes(), typeSuccesses);
+
+        // Rolls 11..99 succeed with the default failure chance of 10
+        assertEquals(0.89, report.total().successRate(), 0.01);
+    }
+
+    @Test
+    void simulate_seededRunsAreReproducible() {
+        LaunchSimulationSettings settings = new LaunchSimulationSettings(200_000, LaunchOptions.DEFAULT, 42L);
+        List<LaunchRequest> requests = requests();
+
+        assertEquals(service.simulate(requests, settings), service.simulate(requests, settings));
+    }
+
+    @Test
+    void simulate_configurableFailureChance() {
+        LaunchSimulationReport alwaysFails =
+                service.simulate(requests(), new LaunchSimulationSettings(1_000, new LaunchOptions(100), 7L));
+        LaunchSimulationReport mostlyFails =
+                service.simulate(requests(), new LaunchSimulationSettings(100_000, new LaunchOptions(75), 7L));
+
+        assertEquals(0, alwaysFails.total().successes());
+        assertEquals(3_000, alwaysFails.total().failures());
+        assertEquals(0.24, mostlyFails.total().successRate(), 0.01);
+    }
+
+    @Test
+    void simulate_entitiesAreNotMutated() {
+        List<LaunchRequest> requests = requests();
+
+        service.simulate(requests, 10);
+
+        for (LaunchRequest request : requests) {
+            assertTrue(request.rocket().getParameters().isEmpty());
+            assertNull(request.rocket().getSpaceport());
+            assertTrue(request.rocket().getChanges().isEmpty());
+        }
+    }
+
+    @Test
+    void simulate_emptyRequests() {
+        LaunchSimulationReport report = service.simulate(List.of(), 10);
+
+        assertEquals(new LaunchStatistics(0, 0), report.total());
+        assertTrue(report.bySpaceport().isEmpty());
+        assertTrue(report.byRocketType().isEmpty());
+    }
+
+    @Test
+    void simulate_invalidRequests() {
+        List<LaunchRequest> requests = new ArrayList<>(requests());
+        requests.add(new LaunchRequest(new Rocket(UUID.randomUUID(), "light"), null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(requests, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(requests(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new LaunchOptions(101));
+    }
+}
@@ -3,6 +3,9 @@ package com.griddynamics.akarsakov.utils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("unitTest")
@@ -14,4 +17,60 @@ class ChanceCalculatorTest {
         int actualChance = calculator.rollForLaunchSuccess();
         assertTrue(actualChance >= 0 && actualChance <= 100);
     }
-}
\ No newline at end of file
+
+    @Test
+    void seededRollsAreReproducible() {
+        int[] first = new int[1000];
+        int[] second = new int[1000];
+
+        ChanceCalculator.seeded(42).rollForLaunchSuccess(first);
+        ChanceCalculator.seeded(42).rollForLaunchSuccess(second);
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void bulkRollsMatchSingleRolls() {
+        ChanceCalculator bulk = ChanceCalculator.seeded(7);
+        ChanceCalculator single = ChanceCalculator.seeded(7);
+        int[] outcomes = new int[100];
+
+        bulk.rollForLaunchSuccess(outcomes);
+
+        for (int outcome : outcomes) {
+            assertEquals(single.rollForLaunchSuccess(), outcome);
+        }
+    }
+
+    @Test
+    void bulkRollsBetweenZeroAndOneHundred() {
+        int[] outcomes = new int[10_000];
+
+        new ChanceCalculator().rollForLaunchSuccess(outcomes);
+
+        assertTrue(Arrays.stream(outcomes).allMatch(outcome -> outcome >= 0 && outcome < 100));
+    }
+
+    @Test
+    void splitCalculatorsAreReproducible() {
+        ChanceCalculator first = ChanceCalculator.seeded(42);
+        ChanceCalculator second = ChanceCalculator.seeded(42);
+
+        ChanceCalculator firstWorker = first.split();
+        ChanceCalculator secondWorker = second.split();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(firstWorker.rollForLaunchSuccess(), secondWorker.rollForLaunchSuccess());
+        }
+    }
+
+    @Test
+    void unseededCalculatorIsSharedAcrossThreads() {
+        ChanceCalculator calculator = new ChanceCalculator();
+
+        assertSame(calculator, calculator.split());
+        assertTrue(IntStream.range(0, 100_000).parallel()
+                .map(i -> calculator.rollForLaunchSuccess())
+                .allMatch(outcome -> outcome >= 0 && outcome < 100));
+    }
+}
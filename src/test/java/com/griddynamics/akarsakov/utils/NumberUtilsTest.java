@@ -44,4 +44,22 @@ class NumberUtilsTest {
     void isNumeric_unsuccessful_NaN() {
         assertFalse(NumberUtils.isNumeric("NaN"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void isDecimal_successful() {
+        assertTrue(NumberUtils.isDecimal("-15.30"));
+        assertTrue(NumberUtils.isDecimal("+.5"));
+        assertTrue(NumberUtils.isDecimal("5."));
+        assertTrue(NumberUtils.isDecimal("1.5E-3"));
+    }
+
+    @Test
+    void isDecimal_unsuccessful() {
+        assertFalse(NumberUtils.isDecimal(null));
+        assertFalse(NumberUtils.isDecimal(""));
+        assertFalse(NumberUtils.isDecimal("412f"));
+        assertFalse(NumberUtils.isDecimal("1e"));
+        assertFalse(NumberUtils.isDecimal("."));
+        assertFalse(NumberUtils.isDecimal("Infinity"));
+    }
+}
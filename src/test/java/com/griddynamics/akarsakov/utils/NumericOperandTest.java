@@ -0,0 +1,78 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class NumericOperandTest {
+
+    @Test
+    void parse_notANumber() {
+        assertThrows(IllegalArgumentException.class, () -> NumericOperand.parse("412f"));
+        assertThrows(IllegalArgumentException.class, () -> NumericOperand.parse("NaN"));
+        assertThrows(IllegalArgumentException.class, () -> NumericOperand.parse(null));
+    }
+
+    @Test
+    void compareTo_integralOperand() {
+        NumericOperand operand = NumericOperand.parse("1700");
+
+        assertEquals(-1, operand.compareTo("900"));
+        assertEquals(0, operand.compareTo("1700"));
+        assertEquals(0, operand.compareTo("1700.000"));
+        assertEquals(1, operand.compareTo("+2000"));
+        assertEquals(-1, operand.compareTo("-12345678901234567890"));
+    }
+
+    @Test
+    void compareTo_fractionalOperand() {
+        NumericOperand operand = NumericOperand.parse("1700.0001");
+
+        assertEquals(-1, operand.compareTo("1700"));
+        assertEquals(1, operand.compareTo("1701"));
+        assertEquals(-1, operand.compareTo("1700.00009"));
+        assertEquals(1, operand.compareTo("1700.00011"));
+        assertEquals(0, operand.compareTo("17000001e-4"));
+    }
+
+    @Test
+    void compareTo_negativeFractionalOperand() {
+        NumericOperand operand = NumericOperand.parse("-1.5");
+
+        assertEquals(-1, operand.compareTo("-2"));
+        assertEquals(1, operand.compareTo("-1"));
+        assertEquals(0, operand.compareTo("-1.50"));
+    }
+
+    @Test
+    void compareTo_zeroes() {
+        assertEquals(0, NumericOperand.parse("0").compareTo("-0.0"));
+        assertEquals(0, NumericOperand.parse("-0.0").compareTo("0"));
+    }
+
+    @Test
+    void compareTo_operandOutsideLongRange() {
+        NumericOperand operand = NumericOperand.parse("1e30");
+
+        assertEquals(-1, operand.compareTo("999999999999999999"));
+        assertEquals(1, operand.compareTo("1000000000000000000000000000001"));
+    }
+
+    @Test
+    void compareTo_precisionBeyondDouble() {
+        NumericOperand operand = NumericOperand.parse("0.10000000000000000001");
+
+        assertEquals(-1, operand.compareTo("0.1"));
+        assertEquals(1, operand.compareTo("0.10000000000000000002"));
+    }
+
+    @Test
+    void compareTo_notANumber() {
+        NumericOperand operand = NumericOperand.parse("1");
+
+        assertThrows(IllegalArgumentException.class, () -> operand.compareTo("100%"));
+        assertThrows(IllegalArgumentException.class, () -> operand.compareTo(""));
+    }
+}
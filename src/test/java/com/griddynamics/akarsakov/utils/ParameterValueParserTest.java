@@ -0,0 +1,64 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class ParameterValueParserTest {
+
+    @Test
+    void parse_integer() {
+        assertEquals(1500L, ParameterValueParser.parse("1500"));
+        assertEquals(-3L, ParameterValueParser.parse("-3"));
+    }
+
+    @Test
+    void parse_decimal() {
+        assertEquals(new Decimal128(new BigDecimal("1700.0001")), ParameterValueParser.parse("1700.0001"));
+        assertEquals(new Decimal128(new BigDecimal("12345678901234567890")),
+                ParameterValueParser.parse("12345678901234567890"));
+    }
+
+    @Test
+    void parse_percentage() {
+        assertEquals(100L, ParameterValueParser.parse("100%"));
+    }
+
+    @Test
+    void parse_boolean() {
+        assertEquals(Boolean.TRUE, ParameterValueParser.parse("true"));
+        assertEquals(Boolean.FALSE, ParameterValueParser.parse("False"));
+    }
+
+    @Test
+    void parse_dateTime() {
+        assertEquals(Instant.parse("2022-03-01T12:00:00.000001Z"),
+                ParameterValueParser.parse("2022-03-01T12:00:00.000001"));
+        assertEquals(Instant.parse("2022-03-01T10:00:00Z"),
+                ParameterValueParser.parse("2022-03-01T12:00:00+02:00"));
+    }
+
+    @Test
+    void parse_text() {
+        assertNull(ParameterValueParser.parse(null));
+        assertNull(ParameterValueParser.parse(""));
+        assertNull(ParameterValueParser.parse("%"));
+        assertNull(ParameterValueParser.parse("solid"));
+        assertNull(ParameterValueParser.parse("2022-03-01Tnoon and a bit"));
+    }
+
+    @Test
+    void normalize_date() {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+
+        assertEquals(now, ParameterValueParser.normalize(Date.from(now)));
+        assertEquals(5L, ParameterValueParser.normalize(5L));
+    }
+}
@@ -1,47 +1,65 @@
 package com.griddynamics.akarsakov.utils;
 
 import com.griddynamics.akarsakov.services.search.SearchCondition;
+import org.bson.Document;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.util.Pair;
+
+import java.util.List;
+import java.util.regex.Pattern;
 
 import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.*;
-import static com.griddynamics.akarsakov.services.search.SearchCondition.Condition.GREATER_THAN;
 import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("unitTest")
 class TextSearchConditionsTranslatorTest {
 
     @Test
-    void buildSearchRegex_NOT_EQUALS_case() {
-        SearchCondition condition = new SearchCondition("randParamName", NOT_EQUALS ,412);
-        Pair<String, String> expected = Pair.of("^(?!412$)", "s");
+    void buildSearchFragment_NOT_EQUALS_case() {
+        SearchCondition condition = new SearchCondition("randParamName", NOT_EQUALS, 412);
+        Document expected = new Document("$exists", true).append("$ne", "412");
+
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
+    }
+
+    @Test
+    void buildSearchFragment_NOT_EQUALS_collection_case() {
+        SearchCondition condition = new SearchCondition("randParamName", NOT_EQUALS, List.of("light", 412));
+        Document expected = new Document("$exists", true).append("$nin", List.of("light", "412"));
+
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
+    }
+
+    @Test
+    void buildSearchFragment_EQUALS_case() {
+        SearchCondition condition = new SearchCondition("randParamName", EQUALS, "a.b*c");
+        Document expected = new Document("$eq", "a.b*c");
 
-        assertEquals(expected, TextSearchConditionsTranslator.buildSearchRegex(condition));
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
     }
 
     @Test
-    void buildSearchRegex_EQUALS_case() {
-        SearchCondition condition = new SearchCondition("randParamName", EQUALS ,412);
-        Pair<String, String> expected = Pair.of("^412$", "");
+    void buildSearchFragment_EQUALS_collection_case() {
+        SearchCondition condition = new SearchCondition("randParamName", EQUALS, List.of("light", "heavy"));
+        Document expected = new Document("$in", List.of("light", "heavy"));
 
-        assertEquals(expected, TextSearchConditionsTranslator.buildSearchRegex(condition));
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
     }
 
     @Test
-    void buildSearchRegex_LIKE_case() {
-        SearchCondition condition = new SearchCondition("randParamName", LIKE ,412);
-        Pair<String, String> expected = Pair.of(".*412.*", "i");
+    void buildSearchFragment_LIKE_case() {
+        SearchCondition condition = new SearchCondition("randParamName", LIKE, "(412)");
+        Document expected = new Document("$regex", Pattern.quote("(412)")).append("$options", "i");
 
-        assertEquals(expected, TextSearchConditionsTranslator.buildSearchRegex(condition));
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
     }
 
     @Test
-    void buildSearchRegex_default_case() {
-        SearchCondition condition = new SearchCondition("randParamName", GREATER_THAN ,412);
-        Pair<String, String> expected = Pair.of("", "");
+    void buildSearchFragment_default_case() {
+        SearchCondition condition = new SearchCondition("randParamName", GREATER_THAN, 412);
+        Document expected = new Document("$exists", true);
 
-        assertEquals(expected, TextSearchConditionsTranslator.buildSearchRegex(condition));
+        assertEquals(expected, TextSearchConditionsTranslator.buildSearchFragment(condition));
     }
 
-}
\ No newline at end of file
+}
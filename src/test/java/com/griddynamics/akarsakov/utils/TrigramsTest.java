@@ -0,0 +1,48 @@
+package com.griddynamics.akarsakov.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTest")
+class TrigramsTest {
+
+    @Test
+    void of_value() {
+        assertEquals(List.of("gps", "ps-", "s-3"), List.copyOf(Trigrams.of("GPS-3")));
+    }
+
+    @Test
+    void of_shortValue() {
+        assertTrue(Trigrams.of("ab").isEmpty());
+        assertTrue(Trigrams.of((String) null).isEmpty());
+    }
+
+    @Test
+    void of_duplicateGrams() {
+        assertEquals(Set.of("aaa"), Trigrams.of("aaaaa"));
+    }
+
+    @Test
+    void of_values() {
+        assertEquals(List.of("sta", "tar", "lin", "ink"), List.copyOf(Trigrams.of(List.of("Star", "link", "li"))));
+    }
+
+    @Test
+    void of_substringGramsAreSubset() {
+        Set<String> grams = Trigrams.of("Starlink Group 4-12");
+
+        assertTrue(grams.containsAll(Trigrams.of("LINK GROUP")));
+    }
+
+    @Test
+    void isIndexable() {
+        assertTrue(Trigrams.isIndexable("abc"));
+        assertFalse(Trigrams.isIndexable("ab"));
+        assertFalse(Trigrams.isIndexable(null));
+    }
+}